@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Cost of an error response next to a success, against a locally running instance, using hey
+# (github.com/rakyll/hey). Start the app with rate limiting off so every request reaches the handler:
+#
+#   RATE_LIMIT_ENABLED=false java -jar target/task-management-api-1.0.0.jar
+#   scripts/error-path-benchmark.sh
+#
+# Compare hey's requests/sec and latency distribution between the three runs; the 404
+# paths should cost about the same as (or less than) the 200.
+set -euo pipefail
+
+BASE="${BASE:-http://localhost:8080}"
+CONCURRENCY="${CONCURRENCY:-50}"
+DURATION="${DURATION:-20s}"
+EMAIL="errors-$$@example.com"
+
+curl -s -o /dev/null -X POST "$BASE/api/users/register" -H 'Content-Type: application/json' \
+  -d "{\"firstName\":\"Error\",\"lastName\":\"Path\",\"email\":\"$EMAIL\",\"password\":\"password123\",\"dateOfBirth\":\"1990-01-01\"}"
+TOKEN=$(curl -s -X POST "$BASE/api/auth/login" -H 'Content-Type: application/json' \
+  -d "{\"email\":\"$EMAIL\",\"password\":\"password123\"}" | sed -E 's/.*"token":"([^"]+)".*/\1/')
+
+echo "== success: GET /api/users/search/Error"
+hey -z "$DURATION" -c "$CONCURRENCY" "$BASE/api/users/search/Error"
+
+echo "== 404: GET /api/users/999999999 (ResourceNotFoundException)"
+hey -z "$DURATION" -c "$CONCURRENCY" -H "Authorization: Bearer $TOKEN" "$BASE/api/users/999999999"
+
+echo "== 404: GET /api/wp-login.php (unmapped route)"
+hey -z "$DURATION" -c "$CONCURRENCY" -H "Authorization: Bearer $TOKEN" "$BASE/api/wp-login.php"
@@ -0,0 +1,25 @@
+#!/usr/bin/env bash
+# Latency under overload against a locally running instance, using hey (github.com/rakyll/hey).
+# Start the app with per-IP rate limiting off so the load generator only meets admission control:
+#
+#   RATE_LIMIT_ENABLED=false java -jar target/task-management-api-1.0.0.jar
+#   scripts/overload-test.sh            # admission control on
+#   (restart with ADMISSION_CONTROL_ENABLED=false as well and rerun to compare)
+#
+# The report to compare is hey's latency distribution and the 200 vs 503 status split.
+set -euo pipefail
+
+BASE="${BASE:-http://localhost:8080}"
+CONCURRENCY="${CONCURRENCY:-400}"
+DURATION="${DURATION:-30s}"
+EMAIL="overload-$$@example.com"
+
+curl -s -o /dev/null -X POST "$BASE/api/users/register" -H 'Content-Type: application/json' \
+  -d "{\"firstName\":\"Load\",\"lastName\":\"Test\",\"email\":\"$EMAIL\",\"password\":\"password123\",\"dateOfBirth\":\"1990-01-01\"}"
+
+echo "== reads: GET /api/users/search/Load at c=${CONCURRENCY}"
+hey -z "$DURATION" -c "$CONCURRENCY" "$BASE/api/users/search/Load"
+
+echo "== auth: POST /api/auth/login (BCrypt-bound) at c=${CONCURRENCY}"
+hey -z "$DURATION" -c "$CONCURRENCY" -m POST -T application/json \
+  -d "{\"email\":\"$EMAIL\",\"password\":\"password123\"}" "$BASE/api/auth/login"
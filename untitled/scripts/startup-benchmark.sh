@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# Measures time from JVM launch to the first successful GET /api/tasks, and RSS right after.
+#
+#   mvn package              && scripts/startup-benchmark.sh default
+#   mvn -Pstartup package    && scripts/startup-benchmark.sh startup
+#
+# "startup" runs the AOT-processed context with lazy initialization and the AppCDS archive
+# produced by the training run in the startup Maven profile.
+set -euo pipefail
+
+MODE="${1:-default}"
+PORT="${PORT:-8080}"
+BASE="http://localhost:${PORT}"
+cd "$(dirname "$0")/.."
+
+case "$MODE" in
+  default)
+    CMD=(java -jar target/task-management-api-1.0.0.jar --server.port="$PORT")
+    ;;
+  startup)
+    CMD=(java -XX:SharedArchiveFile=target/app-cds.jsa -Xshare:auto
+         -Dspring.aot.enabled=true -Dspring.profiles.active=startup
+         -cp "target/classes:$(cat target/classpath.txt)"
+         com.taskmanagement.TaskManagementApplication --server.port="$PORT")
+    ;;
+  *)
+    echo "usage: $0 [default|startup]" >&2
+    exit 1
+    ;;
+esac
+
+EMAIL="bench-$$@example.com"
+start_ms=$(date +%s%3N)
+"${CMD[@]}" > "target/startup-${MODE}.log" 2>&1 &
+PID=$!
+trap 'kill $PID 2>/dev/null || true' EXIT
+
+TOKEN=""
+while true; do
+  if ! kill -0 "$PID" 2>/dev/null; then
+    echo "application exited, see target/startup-${MODE}.log" >&2
+    exit 1
+  fi
+  if [ -z "$TOKEN" ]; then
+    curl -s -o /dev/null -X POST "$BASE/api/users/register" -H 'Content-Type: application/json' \
+      -d "{\"firstName\":\"Bench\",\"lastName\":\"Mark\",\"email\":\"$EMAIL\",\"password\":\"password123\",\"dateOfBirth\":\"1990-01-01\"}" || true
+    TOKEN=$(curl -s -X POST "$BASE/api/auth/login" -H 'Content-Type: application/json' \
+      -d "{\"email\":\"$EMAIL\",\"password\":\"password123\"}" 2>/dev/null \
+      | sed -n 's/.*"token":"\([^"]*\)".*/\1/p' || true)
+  fi
+  if [ -n "$TOKEN" ]; then
+    code=$(curl -s -o /dev/null -w '%{http_code}' "$BASE/api/tasks" -H "Authorization: Bearer $TOKEN" || true)
+    if [ "$code" = "200" ]; then
+      break
+    fi
+  fi
+  sleep 0.02
+done
+ready_ms=$(( $(date +%s%3N) - start_ms ))
+rss_kb=$(ps -o rss= -p "$PID" | tr -d ' ')
+
+echo "mode=${MODE} first_tasks_response_ms=${ready_ms} rss_mb=$(( rss_kb / 1024 ))"
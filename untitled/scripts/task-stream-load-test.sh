@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Throughput and memory per concurrent connection of the buffered JSON task listing against the
+# NDJSON stream, at 10k concurrent clients, using hey (github.com/rakyll/hey). Start the app with
+# generated data and the per-IP limits off, with ulimit -n above the client count on both sides:
+#
+#   RATE_LIMIT_ENABLED=false ADMISSION_CONTROL_ENABLED=false java -jar target/task-management-api-1.0.0.jar \
+#       --spring.profiles.active=datagen --app.datagen.users=10000 --app.datagen.tasks=1000000
+#   scripts/task-stream-load-test.sh
+#
+# Compare hey's requests/sec and latency between the two runs, and the heap and live threads
+# sampled under load: (heap under load - idle heap) / CONCURRENCY is the memory per connection.
+set -euo pipefail
+
+BASE="${BASE:-http://localhost:8080}"
+CONCURRENCY="${CONCURRENCY:-10000}"
+DURATION="${DURATION:-60s}"
+# user1 is the first generated user; every generated user has the datagen password
+EMAIL="${EMAIL:-user1@datagen.example}"
+PASSWORD="${PASSWORD:-password123}"
+
+LOGIN=$(curl -s -X POST "$BASE/api/auth/login" -H 'Content-Type: application/json' \
+  -d "{\"email\":\"$EMAIL\",\"password\":\"$PASSWORD\"}")
+TOKEN=$(echo "$LOGIN" | sed -E 's/.*"token":"([^"]+)".*/\1/')
+USER_ID=$(echo "$LOGIN" | sed -E 's/.*"userId":([0-9]+).*/\1/')
+
+metric() {
+  curl -s -H "Authorization: Bearer $TOKEN" "$BASE/actuator/metrics/$1${2:+?tag=$2}" \
+    | sed -E 's/.*"statistic":"VALUE","value":([0-9.E+]+).*/\1/'
+}
+
+sample() {
+  echo "  heap used: $(metric jvm.memory.used area:heap) bytes, live threads: $(metric jvm.threads.live)"
+}
+
+run() {
+  local name="$1" url="$2"
+  echo "== $name at c=${CONCURRENCY}"
+  echo "idle:"
+  sample
+  hey -z "$DURATION" -c "$CONCURRENCY" -H "Authorization: Bearer $TOKEN" "$url" > "/tmp/hey-$name.txt" &
+  local hey_pid=$!
+  sleep 20
+  echo "under load:"
+  sample
+  wait "$hey_pid"
+  cat "/tmp/hey-$name.txt"
+}
+
+run buffered "$BASE/api/tasks/user/$USER_ID"
+run streamed "$BASE/api/tasks/user/$USER_ID/stream"
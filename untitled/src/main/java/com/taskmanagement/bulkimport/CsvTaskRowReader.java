@@ -0,0 +1,186 @@
+package com.taskmanagement.bulkimport;
+
+import com.taskmanagement.dto.CreateTaskRequest;
+import com.taskmanagement.entity.TaskStatus;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * RFC 4180 CSV with a header row naming the columns, in any order: {@code title} and
+ * {@code dueDate} (or {@code due_date}) are required, {@code description} and {@code status}
+ * optional. Quoted fields may contain commas, doubled quotes and line breaks.
+ */
+public class CsvTaskRowReader implements TaskRowReader {
+
+    private final Reader reader;
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    private int titleColumn = -1;
+    private int descriptionColumn = -1;
+    private int dueDateColumn = -1;
+    private int statusColumn = -1;
+    private long lineNumber;
+    private long nextLineNumber = 1;
+    private int pushback = -2;
+
+    public CsvTaskRowReader(Reader reader) throws IOException, InvalidRowException {
+        this.reader = reader;
+        if (!readRecord()) {
+            throw new InvalidRowException(1, "Missing CSV header row");
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            switch (fields.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "title" -> titleColumn = i;
+                case "description" -> descriptionColumn = i;
+                case "duedate", "due_date" -> dueDateColumn = i;
+                case "status" -> statusColumn = i;
+                default -> { }
+            }
+        }
+        if (titleColumn < 0 || dueDateColumn < 0) {
+            throw new InvalidRowException(1, "CSV header must name the title and dueDate columns");
+        }
+    }
+
+    @Override
+    public CreateTaskRequest next() throws IOException, InvalidRowException {
+        while (readRecord()) {
+            if (fields.size() == 1 && fields.get(0).isEmpty()) {
+                continue; // blank line
+            }
+            return toRequest();
+        }
+        return null;
+    }
+
+    @Override
+    public long getLine() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private CreateTaskRequest toRequest() throws InvalidRowException {
+        String dueDate = column(dueDateColumn);
+        LocalDate parsedDueDate = null;
+        if (dueDate != null && !dueDate.isBlank()) {
+            try {
+                parsedDueDate = LocalDate.parse(dueDate.trim());
+            } catch (DateTimeParseException e) {
+                throw new InvalidRowException(lineNumber, "Invalid dueDate '" + dueDate + "', expected yyyy-MM-dd");
+            }
+        }
+
+        String status = column(statusColumn);
+        TaskStatus parsedStatus = null;
+        if (status != null && !status.isBlank()) {
+            try {
+                parsedStatus = TaskStatus.valueOf(status.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidRowException(lineNumber, "Invalid status '" + status + "'");
+            }
+        }
+
+        String description = column(descriptionColumn);
+        return CreateTaskRequest.builder()
+                .title(column(titleColumn))
+                .description(description != null && !description.isEmpty() ? description : null)
+                .dueDate(parsedDueDate)
+                .status(parsedStatus)
+                .build();
+    }
+
+    private String column(int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index) : null;
+    }
+
+    /**
+     * Reads one record into {@link #fields}; false at end of input. A record over
+     * {@link TaskRowReader#MAX_ROW_CHARS} is consumed to its end and rejected.
+     */
+    private boolean readRecord() throws IOException, InvalidRowException {
+        fields.clear();
+        field.setLength(0);
+        lineNumber = nextLineNumber;
+
+        int c = read();
+        if (c == -1) {
+            return false;
+        }
+        int length = 0;
+        boolean quoted = false;
+        boolean tooLong = false;
+        while (true) {
+            if (c == -1) {
+                break;
+            }
+            if (quoted) {
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        nextLineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                nextLineNumber++;
+                break;
+            } else if (c == '\r') {
+                int following = read();
+                if (following != '\n') {
+                    unread(following);
+                }
+                nextLineNumber++;
+                break;
+            } else {
+                field.append((char) c);
+            }
+
+            if (++length > MAX_ROW_CHARS) {
+                tooLong = true;
+                field.setLength(0);
+                fields.clear();
+            }
+            c = read();
+        }
+        fields.add(field.toString());
+        if (tooLong) {
+            throw new InvalidRowException(lineNumber, "Row exceeds " + MAX_ROW_CHARS + " characters");
+        }
+        return true;
+    }
+
+    private int read() throws IOException {
+        if (pushback != -2) {
+            int c = pushback;
+            pushback = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushback = c;
+    }
+}
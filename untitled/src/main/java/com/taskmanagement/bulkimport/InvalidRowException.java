@@ -0,0 +1,19 @@
+package com.taskmanagement.bulkimport;
+
+/**
+ * A single import row that could not be read. The reader stays positioned after the row, so the
+ * import can record it and carry on.
+ */
+public class InvalidRowException extends Exception {
+
+    private final long line;
+
+    public InvalidRowException(long line, String message) {
+        super(message, null, false, false);
+        this.line = line;
+    }
+
+    public long getLine() {
+        return line;
+    }
+}
@@ -0,0 +1,77 @@
+package com.taskmanagement.bulkimport;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.taskmanagement.dto.CreateTaskRequest;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * One JSON object per line, with the same fields as {@code POST /api/tasks}. Blank lines are skipped.
+ */
+public class NdjsonTaskRowReader implements TaskRowReader {
+
+    private final Reader reader;
+    private final ObjectReader objectReader;
+    private final StringBuilder line = new StringBuilder();
+    private long lineNumber;
+    private boolean eof;
+
+    public NdjsonTaskRowReader(Reader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectReader = objectMapper.readerFor(CreateTaskRequest.class);
+    }
+
+    @Override
+    public CreateTaskRequest next() throws IOException, InvalidRowException {
+        while (!eof) {
+            boolean tooLong = readLine();
+            if (tooLong) {
+                throw new InvalidRowException(lineNumber, "Row exceeds " + MAX_ROW_CHARS + " characters");
+            }
+            if (line.toString().isBlank()) {
+                continue;
+            }
+            try {
+                return objectReader.readValue(line.toString());
+            } catch (JsonProcessingException e) {
+                throw new InvalidRowException(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public long getLine() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Reads up to the next newline, keeping at most MAX_ROW_CHARS; returns whether the line was cut
+    private boolean readLine() throws IOException {
+        line.setLength(0);
+        lineNumber++;
+        boolean tooLong = false;
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n') {
+            if (line.length() < MAX_ROW_CHARS) {
+                line.append((char) c);
+            } else {
+                tooLong = true;
+            }
+        }
+        if (c == -1) {
+            eof = true;
+        }
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') {
+            line.setLength(length - 1);
+        }
+        return tooLong;
+    }
+}
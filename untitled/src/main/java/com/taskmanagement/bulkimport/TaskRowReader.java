@@ -0,0 +1,20 @@
+package com.taskmanagement.bulkimport;
+
+import com.taskmanagement.dto.CreateTaskRequest;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads an upload one task at a time. Implementations hold at most one row in memory, and a row
+ * longer than {@link #MAX_ROW_CHARS} is rejected rather than buffered.
+ */
+public interface TaskRowReader extends Closeable {
+
+    int MAX_ROW_CHARS = 64 * 1024;
+
+    /** The next row, or {@code null} at the end of the input. */
+    CreateTaskRequest next() throws IOException, InvalidRowException;
+
+    /** Line number (1-based) the last returned or rejected row started on. */
+    long getLine();
+}
@@ -0,0 +1,36 @@
+package com.taskmanagement.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Delivers invalidations to the other application contexts running in the same JVM. Each
+ * context is a node; a single-context deployment has no peers and sends to nobody.
+ */
+@Component
+@ConditionalOnProperty(name = "app.invalidation.bus", havingValue = "jvm", matchIfMissing = true)
+public class InJvmInvalidationBus extends InvalidationBus {
+
+    private static final List<InJvmInvalidationBus> NODES = new CopyOnWriteArrayList<>();
+
+    @Override
+    protected void open() {
+        NODES.add(this);
+    }
+
+    @Override
+    protected void close() {
+        NODES.remove(this);
+    }
+
+    @Override
+    protected void send(byte[] batch) {
+        for (InJvmInvalidationBus node : NODES) {
+            if (node != this) {
+                node.receive(batch);
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.taskmanagement.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Carries cache invalidations to the other instances of the application.
+ * <p>
+ * A node invalidates its own caches directly and {@link #publish publishes} the invalidation;
+ * other nodes' {@link #subscribe subscribers} receive it. Invalidations are collected for
+ * {@code app.invalidation.batchMs}, with repeats of the same key collapsed, and sent as one
+ * batch per transport message. Each batch carries the sender's id, a per-sender sequence number
+ * and its send time, so receivers can skip duplicates, count lost batches and measure latency.
+ * A lost batch can hide any invalidation, so a receiver that detects a gap clears every
+ * subscribed cache. A node that has sent nothing for {@code app.invalidation.heartbeatMs} sends
+ * an empty batch with its last sequence number, so the loss of its final batch is detected too.
+ * <p>
+ * Transports extend this class with {@link #send} and feed incoming batches to {@link #receive}.
+ */
+public abstract class InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+
+    private static final int FORMAT_VERSION = 1;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.invalidation.batchMs:5}")
+    private long batchMs;
+
+    @Value("${app.invalidation.maxBatchBytes:1200}")
+    private int maxBatchBytes;
+
+    @Value("${app.invalidation.heartbeatMs:1000}")
+    private long heartbeatMs;
+
+    private final long nodeId = new SecureRandom().nextLong();
+    private final Map<String, List<Consumer<String>>> subscribers = new ConcurrentHashMap<>();
+    private final Map<Long, Long> lastSequenceBySender = new ConcurrentHashMap<>();
+    private long sequence;
+    private boolean sentSinceHeartbeat;
+
+    // Guarded by itself; a set, so repeated invalidations of a key within a batch go out once
+    private final Set<List<String>> pending = new LinkedHashSet<>();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-bus");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Counter published;
+    private Counter batchesSent;
+    private Counter received;
+    private Counter dropped;
+    private Counter duplicates;
+    private Counter sendFailures;
+    private Timer latency;
+
+    @PostConstruct
+    void start() throws IOException {
+        published = Counter.builder("cache.invalidation.published").register(meterRegistry);
+        batchesSent = Counter.builder("cache.invalidation.batches").register(meterRegistry);
+        received = Counter.builder("cache.invalidation.received").register(meterRegistry);
+        dropped = Counter.builder("cache.invalidation.dropped")
+                .description("Batches from other nodes that never arrived")
+                .register(meterRegistry);
+        duplicates = Counter.builder("cache.invalidation.duplicates")
+                .description("Batches from other nodes received more than once")
+                .register(meterRegistry);
+        sendFailures = Counter.builder("cache.invalidation.send.failures").register(meterRegistry);
+        latency = Timer.builder("cache.invalidation.latency")
+                .description("From publish on the sending node to delivery on this one")
+                .register(meterRegistry);
+        open();
+        flusher.scheduleWithFixedDelay(this::flush, batchMs, batchMs, TimeUnit.MILLISECONDS);
+        flusher.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        flusher.shutdown();
+        flush();
+        close();
+    }
+
+    /** Registers {@code listener} for invalidations of {@code cache} published by other nodes. */
+    public void subscribe(String cache, Consumer<String> listener) {
+        subscribers.computeIfAbsent(cache, name -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /** Sends an invalidation of {@code key} in {@code cache} ({@code null} for all of it) with the next batch. */
+    public void publish(String cache, String key) {
+        synchronized (pending) {
+            pending.add(Arrays.asList(cache, key));
+        }
+        published.increment();
+    }
+
+    /** Starts the transport; called before the first batch is sent. */
+    protected void open() throws IOException {
+    }
+
+    protected void close() {
+    }
+
+    protected abstract void send(byte[] batch) throws IOException;
+
+    /** Hands a batch received by the transport to this node's subscribers. */
+    protected void receive(byte[] batch) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(batch))) {
+            if (in.readByte() != FORMAT_VERSION) {
+                return;
+            }
+            long sender = in.readLong();
+            if (sender == nodeId) {
+                return;
+            }
+            long batchSequence = in.readLong();
+            long sentAtMillis = in.readLong();
+            int count = in.readUnsignedShort();
+
+            Long previous = lastSequenceBySender.get(sender);
+            if (count == 0) {
+                // A heartbeat: carries the sender's last sequence number without using up a new one
+                if (previous == null || batchSequence > previous) {
+                    lastSequenceBySender.put(sender, batchSequence);
+                }
+                if (previous != null && batchSequence > previous) {
+                    dropped.increment(batchSequence - previous);
+                    subscribers.forEach((cache, listeners) -> listeners.forEach(listener -> listener.accept(null)));
+                }
+                return;
+            }
+            if (previous != null && batchSequence <= previous) {
+                duplicates.increment();
+                return;
+            }
+            lastSequenceBySender.put(sender, batchSequence);
+            latency.record(Math.max(0, System.currentTimeMillis() - sentAtMillis), TimeUnit.MILLISECONDS);
+            if (previous != null && batchSequence > previous + 1) {
+                dropped.increment(batchSequence - previous - 1);
+                subscribers.forEach((cache, listeners) -> listeners.forEach(listener -> listener.accept(null)));
+            }
+
+            for (int i = 0; i < count; i++) {
+                String cache = in.readUTF();
+                String key = in.readBoolean() ? in.readUTF() : null;
+                List<Consumer<String>> listeners = subscribers.get(cache);
+                if (listeners != null) {
+                    listeners.forEach(listener -> listener.accept(key));
+                }
+                received.increment();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Discarding malformed invalidation batch", e);
+        }
+    }
+
+    // Synchronized so the final flush on shutdown cannot interleave with a scheduled one
+    private synchronized void flush() {
+        List<List<String>> batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending);
+            pending.clear();
+        }
+
+        try {
+            int from = 0;
+            while (from < batch.size()) {
+                from = sendFrom(batch, from);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Receivers see the sequence gap and clear their caches
+            sendFailures.increment();
+            log.warn("Could not send cache invalidations", e);
+        }
+    }
+
+    // Synchronized with flush, which hands out the sequence numbers
+    private synchronized void heartbeat() {
+        if (sentSinceHeartbeat || sequence == 0) {
+            sentSinceHeartbeat = false;
+            return;
+        }
+        try {
+            send(header(sequence, 0).toByteArray());
+        } catch (IOException | RuntimeException e) {
+            sendFailures.increment();
+            log.warn("Could not send cache invalidation heartbeat", e);
+        }
+    }
+
+    // Encodes entries from `from` until the batch reaches maxBatchBytes, sends it, returns the next index
+    private int sendFrom(List<List<String>> entries, int from) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(maxBatchBytes);
+        DataOutputStream out = new DataOutputStream(body);
+        int next = from;
+        while (next < entries.size() && (next == from || out.size() < maxBatchBytes)) {
+            List<String> entry = entries.get(next++);
+            out.writeUTF(entry.get(0));
+            out.writeBoolean(entry.get(1) != null);
+            if (entry.get(1) != null) {
+                out.writeUTF(entry.get(1));
+            }
+        }
+
+        ByteArrayOutputStream message = header(++sequence, next - from);
+        body.writeTo(message);
+
+        send(message.toByteArray());
+        sentSinceHeartbeat = true;
+        batchesSent.increment();
+        return next;
+    }
+
+    private ByteArrayOutputStream header(long batchSequence, int count) throws IOException {
+        ByteArrayOutputStream message = new ByteArrayOutputStream(maxBatchBytes + 32);
+        DataOutputStream header = new DataOutputStream(message);
+        header.writeByte(FORMAT_VERSION);
+        header.writeLong(nodeId);
+        header.writeLong(batchSequence);
+        header.writeLong(System.currentTimeMillis());
+        header.writeShort(count);
+        return message;
+    }
+}
@@ -0,0 +1,92 @@
+package com.taskmanagement.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.StandardSocketOptions;
+import java.util.Arrays;
+
+/**
+ * Sends invalidations as UDP multicast datagrams, one batch per datagram, to every process
+ * that joined {@code app.invalidation.multicast.group}. Datagrams are sent with TTL 1 on the
+ * interface named by {@code app.invalidation.multicast.interface} (the loopback interface by
+ * default, for several instances on one machine). UDP may drop or duplicate datagrams; both
+ * are detected and counted by {@link InvalidationBus}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.invalidation.bus", havingValue = "multicast")
+public class MulticastInvalidationBus extends InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(MulticastInvalidationBus.class);
+
+    @Value("${app.invalidation.multicast.group:239.255.42.99}")
+    private String group;
+
+    @Value("${app.invalidation.multicast.port:4446}")
+    private int port;
+
+    @Value("${app.invalidation.multicast.interface:}")
+    private String interfaceName;
+
+    private MulticastSocket socket;
+    private InetSocketAddress groupAddress;
+
+    @Override
+    protected void open() throws IOException {
+        NetworkInterface networkInterface = interfaceName.isBlank()
+                ? NetworkInterface.getByInetAddress(InetAddress.getLoopbackAddress())
+                : NetworkInterface.getByName(interfaceName);
+        if (networkInterface == null) {
+            throw new SocketException("No network interface " + interfaceName + " for cache invalidations");
+        }
+        groupAddress = new InetSocketAddress(InetAddress.getByName(group), port);
+
+        // MulticastSocket enables SO_REUSEADDR, so several instances can bind the same port
+        socket = new MulticastSocket(port);
+        socket.setOption(StandardSocketOptions.IP_MULTICAST_IF, networkInterface);
+        socket.setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+        socket.setTimeToLive(1);
+        socket.joinGroup(groupAddress, networkInterface);
+
+        Thread receiver = new Thread(this::receiveLoop, "cache-invalidation-multicast");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    @Override
+    protected void close() {
+        if (socket != null) {
+            socket.close();
+        }
+    }
+
+    @Override
+    protected void send(byte[] batch) throws IOException {
+        socket.send(new DatagramPacket(batch, batch.length, groupAddress));
+    }
+
+    private void receiveLoop() {
+        byte[] buffer = new byte[65507];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        while (!socket.isClosed()) {
+            try {
+                packet.setLength(buffer.length);
+                socket.receive(packet);
+                receive(Arrays.copyOf(packet.getData(), packet.getLength()));
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    log.warn("Receiving cache invalidations failed", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.taskmanagement.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanagement.datasource.ReadWriteRoutingDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds already-serialized JSON (and optionally gzip) bodies for hot list endpoints.
+ * Writes bump a per-snapshot version; a snapshot is only served while its version is current.
+ * Rebuilds happen on a background thread, so readers either get a current snapshot or fall
+ * through to the normal request path - they never wait for a rebuild. A body over
+ * {@code app.snapshotCache.maxBytes} is remembered as oversize for its version, so misses do not
+ * keep loading and serializing the whole table until a write changes it.
+ * Invalidations are also published on the {@link InvalidationBus} so other nodes drop theirs.
+ */
+@Component
+public class ResponseSnapshotCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseSnapshotCache.class);
+
+    private static final String TOPIC = "snapshots";
+
+    public enum Key {
+        TASKS,
+        USERS
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Value("${app.snapshotCache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.snapshotCache.maxBytes:8388608}")
+    private int maxBytes;
+
+    @Value("${app.snapshotCache.gzipMinBytes:1024}")
+    private int gzipMinBytes;
+
+    private final Map<Key, Entry> entries = new EnumMap<>(Key.class);
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "response-snapshot-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Counter hits;
+    private Counter misses;
+    private Timer rebuildTimer;
+
+    @PostConstruct
+    void init() {
+        for (Key key : Key.values()) {
+            Entry entry = new Entry();
+            entries.put(key, entry);
+            Gauge.builder("snapshot.cache.bytes", entry, Entry::sizeInBytes).tag("snapshot", key.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        hits = Counter.builder("snapshot.cache.requests").tag("outcome", "hit").register(meterRegistry);
+        misses = Counter.builder("snapshot.cache.requests").tag("outcome", "miss").register(meterRegistry);
+        rebuildTimer = Timer.builder("snapshot.cache.rebuild").register(meterRegistry);
+        invalidationBus.subscribe(TOPIC, key -> {
+            if (key != null) {
+                entries.get(Key.valueOf(key)).version.incrementAndGet();
+            } else {
+                entries.values().forEach(entry -> entry.version.incrementAndGet());
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Marks the snapshot stale. Inside a transaction the bump is deferred until after commit,
+     * so a concurrent rebuild cannot capture pre-commit data under the new version.
+     */
+    public void invalidate(Key key) {
+        Entry entry = entries.get(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entry.version.incrementAndGet();
+                    invalidationBus.publish(TOPIC, key.name());
+                }
+            });
+        } else {
+            entry.version.incrementAndGet();
+            invalidationBus.publish(TOPIC, key.name());
+        }
+    }
+
+    /**
+     * Returns the current snapshot, or {@code null} after scheduling a background rebuild
+     * from {@code loader}. The caller is expected to serve the request normally on a miss.
+     */
+    public Snapshot get(Key key, Supplier<?> loader) {
+        Entry entry = entries.get(key);
+        Snapshot snapshot = entry.snapshot;
+        long version = entry.version.get();
+        if (snapshot != null && snapshot.version == version) {
+            hits.increment();
+            return snapshot;
+        }
+        misses.increment();
+        if (entry.oversizeVersion != version) {
+            scheduleRebuild(entry, loader);
+        }
+        return null;
+    }
+
+    private void scheduleRebuild(Entry entry, Supplier<?> loader) {
+        if (!entry.rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuild(entry, loader);
+                } finally {
+                    entry.rebuilding.set(false);
+                }
+            });
+        } catch (RuntimeException ex) {
+            entry.rebuilding.set(false);
+            log.warn("Could not schedule snapshot rebuild", ex);
+        }
+    }
+
+    private void rebuild(Entry entry, Supplier<?> loader) {
+        long startNanos = System.nanoTime();
+        // Read the version before loading: if a write lands meanwhile, the snapshot is born stale.
+        long version = entry.version.get();
+        try {
+            // Read from the primary: a lagging replica would pin stale rows under the current version
+            Object body = ReadWriteRoutingDataSource.onPrimary(loader);
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            if (json.length > maxBytes) {
+                entry.snapshot = null;
+                entry.oversizeVersion = version;
+                return;
+            }
+            byte[] gzip = json.length >= gzipMinBytes ? gzip(json) : null;
+            entry.snapshot = new Snapshot(version, ByteBuffer.wrap(json),
+                    gzip != null && gzip.length < json.length ? ByteBuffer.wrap(gzip) : null);
+        } catch (Exception ex) {
+            log.warn("Snapshot rebuild failed", ex);
+        } finally {
+            rebuildTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(bytes);
+        }
+        return buffer.toByteArray();
+    }
+
+    public static final class Snapshot {
+        private final long version;
+        private final ByteBuffer json;
+        private final ByteBuffer gzip;
+
+        private Snapshot(long version, ByteBuffer json, ByteBuffer gzip) {
+            this.version = version;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        public ByteBuffer getJson() {
+            return json;
+        }
+
+        public ByteBuffer getGzip() {
+            return gzip;
+        }
+    }
+
+    private static final class Entry {
+        private final AtomicLong version = new AtomicLong();
+        private final AtomicBoolean rebuilding = new AtomicBoolean();
+        private volatile Snapshot snapshot;
+        // The version whose body was too large to keep; no rebuild is tried again until it changes
+        private volatile long oversizeVersion = -1;
+
+        private double sizeInBytes() {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return 0;
+            }
+            return current.json.capacity() + (current.gzip != null ? current.gzip.capacity() : 0);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.taskmanagement.cache;
+
+import com.taskmanagement.service.TaskService;
+import com.taskmanagement.service.UserService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsProcessor;
+import org.springframework.web.cors.DefaultCorsProcessor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Serves {@code GET /api/tasks} and {@code GET /api/users} from {@link ResponseSnapshotCache}.
+ * Registered as a plain servlet filter, so it runs after the security filter chain. Hits skip
+ * Spring MVC, so the CORS headers the controllers' {@code @CrossOrigin} adds are applied here too.
+ */
+@Component
+public class ResponseSnapshotFilter extends OncePerRequestFilter {
+
+    // As @CrossOrigin(origins = "*", maxAge = 3600) on TaskController and UserController
+    private static final CorsConfiguration CORS = new CorsConfiguration();
+
+    static {
+        CORS.setAllowedOrigins(List.of(CorsConfiguration.ALL));
+        CORS.setAllowedMethods(List.of("GET"));
+        CORS.setAllowedHeaders(List.of(CorsConfiguration.ALL));
+        CORS.setMaxAge(3600L);
+    }
+
+    private final CorsProcessor corsProcessor = new DefaultCorsProcessor();
+
+    @Autowired
+    private ResponseSnapshotCache snapshotCache;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserService userService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !snapshotCache.isEnabled()
+                || !"GET".equals(request.getMethod())
+                || request.getQueryString() != null
+                || !acceptsJson(request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ResponseSnapshotCache.Snapshot snapshot = null;
+        String uri = request.getRequestURI();
+        if ("/api/tasks".equals(uri)) {
+            snapshot = snapshotCache.get(ResponseSnapshotCache.Key.TASKS, taskService::getAllTasks);
+        } else if ("/api/users".equals(uri)) {
+            snapshot = snapshotCache.get(ResponseSnapshotCache.Key.USERS, userService::getAllUsers);
+        }
+
+        if (snapshot == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!corsProcessor.processRequest(CORS, request, response)) {
+            return;
+        }
+        ByteBuffer body = snapshot.getJson();
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (snapshot.getGzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            body = snapshot.getGzip();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentLength(body.remaining());
+        // Snapshot buffers are heap-backed and never mutated, so the backing array is written as-is
+        response.getOutputStream().write(body.array(), body.arrayOffset() + body.position(), body.remaining());
+    }
+
+    // Only the client's first preference is considered; anything else goes through content negotiation
+    private static boolean acceptsJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        String preferred = accept.trim();
+        return preferred.startsWith(MediaType.APPLICATION_JSON_VALUE) || preferred.startsWith(MediaType.ALL_VALUE);
+    }
+}
@@ -0,0 +1,131 @@
+package com.taskmanagement.cache;
+
+import com.taskmanagement.security.UserPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caches the principal looked up by email on every authenticated request. Entries expire after
+ * {@code app.userCache.ttlMs} as a backstop; {@code UserService} evicts a user after a create,
+ * update or delete commits, and the eviction reaches the other nodes over the {@link InvalidationBus}.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private static final String TOPIC = "users";
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.userCache.maxEntries:10000}")
+    private int maxEntries;
+
+    @Value("${app.userCache.ttlMs:60000}")
+    private long ttlMs;
+
+    private final Map<String, Entry> byEmail = new ConcurrentHashMap<>();
+
+    // Bumped by every eviction; a load that overlaps one is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("user.cache.size", byEmail, Map::size).register(meterRegistry);
+        hits = Counter.builder("user.cache.requests").tag("outcome", "hit").register(meterRegistry);
+        misses = Counter.builder("user.cache.requests").tag("outcome", "miss").register(meterRegistry);
+        invalidationBus.subscribe(TOPIC, key -> {
+            if (key == null) {
+                generation.incrementAndGet();
+                byEmail.clear();
+            } else {
+                int separator = key.indexOf(':');
+                evictLocally(Long.valueOf(key.substring(0, separator)), key.substring(separator + 1));
+            }
+        });
+    }
+
+    /** Returns the cached principal for {@code email}, or loads and caches it; loader exceptions propagate. */
+    public UserPrincipal get(String email, Function<String, UserPrincipal> loader) {
+        long now = System.nanoTime();
+        Entry entry = byEmail.get(email);
+        if (entry != null && entry.expiresAtNanos - now > 0) {
+            hits.increment();
+            return entry.principal;
+        }
+        misses.increment();
+
+        long loadedGeneration = generation.get();
+        UserPrincipal principal = loader.apply(email);
+        if (byEmail.size() >= maxEntries) {
+            byEmail.values().removeIf(cached -> cached.expiresAtNanos - now <= 0);
+            if (byEmail.size() >= maxEntries) {
+                return principal;
+            }
+        }
+        Entry loaded = new Entry(principal, now + TimeUnit.MILLISECONDS.toNanos(ttlMs));
+        byEmail.put(email, loaded);
+        // Checked after the put: an eviction racing with it either sees the entry or bumps the generation
+        if (generation.get() != loadedGeneration) {
+            byEmail.remove(email, loaded);
+        }
+        return principal;
+    }
+
+    /**
+     * Evicts entries for the user id or the email here and on the other nodes, after the current
+     * transaction commits. The email matters for new users, whose address may still map to a
+     * user deleted outside {@code UserService}.
+     */
+    public void evict(Long userId, String email) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictEverywhere(userId, email);
+                }
+            });
+        } else {
+            evictEverywhere(userId, email);
+        }
+    }
+
+    private void evictEverywhere(Long userId, String email) {
+        evictLocally(userId, email);
+        invalidationBus.publish(TOPIC, userId + ":" + email);
+    }
+
+    // Updates can change the email, so entries are also matched by id. Evictions are rare enough to scan.
+    private void evictLocally(Long userId, String email) {
+        generation.incrementAndGet();
+        byEmail.remove(email);
+        byEmail.values().removeIf(cached -> cached.principal.getId().equals(userId));
+    }
+
+    private static final class Entry {
+        private final UserPrincipal principal;
+        private final long expiresAtNanos;
+
+        private Entry(UserPrincipal principal, long expiresAtNanos) {
+            this.principal = principal;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.taskmanagement.config;
+
+import com.taskmanagement.datasource.ReadWriteRoutingDataSource;
+import com.taskmanagement.datasource.ReadYourWritesTracker;
+import com.taskmanagement.datasource.ShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class DataSourceConfig {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.datasource.replicaUrls:}")
+    private List<String> replicaUrls;
+
+    @Value("${app.sharding.shardUrls:}")
+    private List<String> shardUrls;
+
+    @Value("${app.datasource.readYourWritesMs:2000}")
+    private long readYourWritesMs;
+
+    @Value("${app.datasource.replicaHealthCheckMs:5000}")
+    private long replicaHealthCheckMs;
+
+    @Bean(destroyMethod = "shutdown")
+    public ReadWriteRoutingDataSource routingDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+        // Publishes hikaricp.connections.usage, i.e. how long each connection is held per checkout
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = createPool(properties, url.trim(), "replica-" + replicas.size());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+
+        List<DataSource> shards = new ArrayList<>();
+        for (String url : shardUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            shards.add(createPool(properties, url.trim(), "shard-" + (shards.size() + 1)));
+        }
+
+        return new ReadWriteRoutingDataSource(primary, replicas, shards,
+                new ReadYourWritesTracker(readYourWritesMs), replicaHealthCheckMs);
+    }
+
+    @Bean
+    public ShardRouter shardRouter() {
+        // The primary is shard 0; every configured shard URL adds one more
+        int shardCount = 1 + (int) shardUrls.stream().filter(url -> !url.isBlank()).count();
+        return new ShardRouter(shardCount);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private HikariDataSource createPool(DataSourceProperties properties, String url, String poolName) {
+        HikariDataSource pool = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(properties.determineUsername())
+                .password(properties.determinePassword())
+                .build();
+        pool.setPoolName(poolName);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
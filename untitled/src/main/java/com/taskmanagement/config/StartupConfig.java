@@ -0,0 +1,53 @@
+package com.taskmanagement.config;
+
+import com.taskmanagement.TaskManagementApplication;
+import com.taskmanagement.datasource.ReadWriteRoutingDataSource;
+import com.taskmanagement.datasource.ShardRebalancer;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.util.ClassUtils;
+
+@Configuration
+@Profile("startup")
+public class StartupConfig {
+
+    // Shard schema preparation and replica health checks must not wait for the first request
+    @Bean
+    public static LazyInitializationExcludeFilter eagerInfrastructure() {
+        return LazyInitializationExcludeFilter.forBeanTypes(ReadWriteRoutingDataSource.class, ShardRebalancer.class);
+    }
+
+    /**
+     * AOT processing evaluates {@code @ConditionalOnProperty} once, at build time, so the
+     * implementation chosen by {@code app.invalidation.bus}, {@code app.overdue.sink} or
+     * {@code app.outbox.publisher} is the one the build saw. Refuses to start when the property
+     * now selects another, instead of silently running the wrong one.
+     */
+    @Bean
+    public ApplicationRunner buildTimeConditionGuard(ApplicationContext context, Environment environment) {
+        return args -> context.getBeansWithAnnotation(ConditionalOnProperty.class).values().forEach(bean -> {
+            Class<?> beanClass = ClassUtils.getUserClass(bean);
+            ConditionalOnProperty condition = AnnotationUtils.findAnnotation(beanClass, ConditionalOnProperty.class);
+            if (condition == null || !beanClass.getPackageName().startsWith(TaskManagementApplication.class.getPackageName())) {
+                return;
+            }
+            for (String name : condition.name().length > 0 ? condition.name() : condition.value()) {
+                String value = environment.getProperty(condition.prefix().isEmpty() ? name : condition.prefix() + "." + name);
+                boolean matches = value == null ? condition.matchIfMissing()
+                        : condition.havingValue().isEmpty() ? !"false".equalsIgnoreCase(value)
+                        : value.equalsIgnoreCase(condition.havingValue());
+                if (!matches) {
+                    throw new IllegalStateException(name + "=" + value + " does not select " + beanClass.getSimpleName()
+                            + ", which this build was AOT-processed with; set it when running mvn -Pstartup package");
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package com.taskmanagement.config;
+
+import com.taskmanagement.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The MVC async executor, which writes the NDJSON task streams. It is bounded on its own rather
+ * than sharing the application task executor: {@link #admit} takes one permit per running or
+ * queued stream before the controller returns the body, and answers 503 once
+ * {@code maxConcurrent + maxQueued} are taken, so a burst of streams is refused instead of
+ * queueing behind each other until they time out.
+ */
+@Component
+public class TaskStreamExecutor implements WebMvcConfigurer {
+
+    private final ThreadPoolExecutor executor;
+
+    // One permit per running or queued stream; given back when its task has run, or was cancelled
+    private final Semaphore streamSlots;
+
+    public TaskStreamExecutor(@Value("${app.taskStream.maxConcurrent:32}") int maxConcurrent,
+                              @Value("${app.taskStream.maxQueued:64}") int maxQueued) {
+        this.streamSlots = new Semaphore(maxConcurrent + maxQueued);
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxQueued), runnable -> {
+                    Thread thread = new Thread(runnable, "task-stream");
+                    thread.setDaemon(true);
+                    return thread;
+                }, (runnable, pool) -> {
+                    streamSlots.release();
+                    throw new RejectedExecutionException("Task stream executor is full");
+                }) {
+            @Override
+            protected void afterExecute(Runnable runnable, Throwable failure) {
+                // Also reached for a task cancelled by the async timeout before it started
+                streamSlots.release();
+            }
+        };
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Reserves a slot for one stream; the slot is released when the stream's task has run. */
+    public void admit() {
+        if (!streamSlots.tryAcquire()) {
+            throw new ServiceUnavailableException("Too many task streams in progress, retry later");
+        }
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(executor));
+    }
+}
@@ -0,0 +1,39 @@
+package com.taskmanagement.controller;
+
+import com.taskmanagement.service.AuthService;
+import com.taskmanagement.tracing.SlowTraceBuffer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+/** Operator endpoints; {@code SecurityConfig} restricts them to the ADMIN authority. */
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class AdminController {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private SlowTraceBuffer slowTraceBuffer;
+
+    @PostMapping("/tokens/{jti}/revoke")
+    public ResponseEntity<Void> revokeToken(@PathVariable String jti) {
+        authService.revokeToken(jti);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/users/{userId}/tokens/revoke")
+    public ResponseEntity<Void> revokeUserTokens(@PathVariable Long userId) {
+        authService.revokeUserTokens(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /** The most recent traced requests over {@code app.tracing.slowMs}, newest first. */
+    @GetMapping("/traces/slow")
+    public ResponseEntity<List<SlowTraceBuffer.SlowTrace>> getSlowTraces() {
+        return ResponseEntity.ok(slowTraceBuffer.snapshot());
+    }
+}
@@ -1,27 +1,57 @@
 package com.taskmanagement.controller;
 
+import com.taskmanagement.config.TaskStreamExecutor;
 import com.taskmanagement.dto.CreateTaskRequest;
+import com.taskmanagement.dto.ImportJobDTO;
+import com.taskmanagement.dto.MultiGetResponse;
+import com.taskmanagement.dto.SparseField;
 import com.taskmanagement.dto.UpdateTaskRequest;
 import com.taskmanagement.dto.TaskDTO;
+import com.taskmanagement.dto.TaskField;
 import com.taskmanagement.security.UserPrincipal;
+import com.taskmanagement.service.TaskImportService;
 import com.taskmanagement.service.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/tasks")
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class TaskController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 100;
+
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskStreamExecutor taskStreamExecutor;
+
+    @Value("${app.taskStream.chunkSize:500}")
+    private int streamChunkSize;
+
     @PostMapping
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<TaskDTO> createTask(
@@ -32,28 +62,100 @@ public class TaskController {
         return ResponseEntity.status(HttpStatus.CREATED).body(taskDTO);
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ImportJobDTO> importTasks(
+            HttpServletRequest request,
+            Authentication authentication) throws IOException {
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        TaskImportService.Format format = request.getContentType().startsWith("text/csv")
+                ? TaskImportService.Format.CSV
+                : TaskImportService.Format.NDJSON;
+        ImportJobDTO job = taskImportService.startImport(principal.getId(), format, request.getInputStream(),
+                request.getContentLengthLong());
+        return ResponseEntity.accepted()
+                .header("Location", "/api/tasks/import/" + job.getId())
+                .body(job);
+    }
+
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ImportJobDTO> getImportJob(
+            @PathVariable String jobId,
+            Authentication authentication) {
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        return ResponseEntity.ok(taskImportService.getJob(jobId, principal.getId()));
+    }
+
     @GetMapping
-    public ResponseEntity<List<TaskDTO>> getAllTasks() {
-        List<TaskDTO> tasks = taskService.getAllTasks();
+    public ResponseEntity<List<TaskDTO>> getAllTasks(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String fields) {
+        Set<TaskField> selected = SparseField.parse(TaskField.class, fields);
+        if (afterId == null && limit == null) {
+            return ResponseEntity.ok(taskService.getAllTasks(includeArchived, selected));
+        }
+        int pageSize = limit != null ? Math.max(1, Math.min(limit, MAX_PAGE_SIZE)) : MAX_PAGE_SIZE;
+        List<TaskDTO> tasks = taskService.getTasksPage(afterId, pageSize, includeArchived, selected);
+        return ResponseEntity.ok(tasks);
+    }
+
+    /**
+     * The caller's tasks with the given ids ({@code ?ids=3,1,2}), in that order, in one query per
+     * chunk of ids; ids that are not the caller's tasks come back in {@code missingIds}.
+     */
+    @GetMapping(params = "ids")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<MultiGetResponse<TaskDTO>> getTasksByIds(
+            @RequestParam List<Long> ids,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            Authentication authentication) {
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        return ResponseEntity.ok(taskService.getTasksByIds(principal.getId(), ids, includeArchived));
+    }
+
+    /**
+     * Every task as NDJSON, streamed in id order; memory and connection use stay bounded by one
+     * chunk whatever the table size.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllTasks() {
+        taskStreamExecutor.admit();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjson(sink -> taskService.streamAllTasks(streamChunkSize, sink)));
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<TaskDTO>> searchTasks(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        int resultLimit = limit != null ? Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT)) : DEFAULT_SEARCH_LIMIT;
+        List<TaskDTO> tasks = taskService.searchTasks(principal.getId(), q, resultLimit);
         return ResponseEntity.ok(tasks);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id) {
+    public ResponseEntity<TaskDTO> getTaskById(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String fields) {
         // For public access to view task details by ID
-        // We'll fetch it and return if it exists
-        List<TaskDTO> allTasks = taskService.getAllTasks();
-        return allTasks.stream()
-                .filter(t -> t.getId().equals(id))
-                .findFirst()
-                .map(ResponseEntity::ok)
-                .orElseGet(() -> ResponseEntity.notFound().build());
+        TaskDTO task = taskService.getTaskById(id, includeArchived, SparseField.parse(TaskField.class, fields));
+        return ResponseEntity.ok(task);
     }
 
     @GetMapping("/user/{userId}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<List<TaskDTO>> getUserTasks(
             @PathVariable Long userId,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String fields,
             Authentication authentication) {
         UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
 
@@ -62,7 +164,40 @@ public class TaskController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        List<TaskDTO> tasks = taskService.getUserTasks(userId);
+        List<TaskDTO> tasks = taskService.getUserTasks(userId, includeArchived,
+                SparseField.parse(TaskField.class, fields));
+        return ResponseEntity.ok(tasks);
+    }
+
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<StreamingResponseBody> streamUserTasks(
+            @PathVariable Long userId,
+            Authentication authentication) {
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+
+        if (!principal.getId().equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        taskStreamExecutor.admit();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjson(sink -> taskService.streamUserTasks(userId, streamChunkSize, sink)));
+    }
+
+    @GetMapping("/user/{userId}/overdue")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<TaskDTO>> getOverdueTasks(
+            @PathVariable Long userId,
+            Authentication authentication) {
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+
+        if (!principal.getId().equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        List<TaskDTO> tasks = taskService.getOverdueTasks(userId);
         return ResponseEntity.ok(tasks);
     }
 
@@ -86,5 +221,25 @@ public class TaskController {
         taskService.deleteTask(id, principal.getId());
         return ResponseEntity.noContent().build();
     }
-}
 
+    /**
+     * Writes the streamed chunks as NDJSON from the {@link TaskStreamExecutor}, so the request thread is
+     * released straight away. Flushing after each chunk blocks while the client is behind, which
+     * holds back the read of the next chunk.
+     */
+    private StreamingResponseBody ndjson(TaskStream stream) {
+        return out -> {
+            try (SequenceWriter writer = objectMapper.writerFor(TaskDTO.class).withRootValueSeparator("\n").writeValues(out)) {
+                stream.writeTo(chunk -> {
+                    writer.writeAll(chunk);
+                    writer.flush();
+                });
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface TaskStream {
+        void writeTo(TaskService.ChunkSink sink) throws IOException;
+    }
+}
@@ -1,8 +1,11 @@
 package com.taskmanagement.controller;
 
 import com.taskmanagement.dto.CreateUserRequest;
+import com.taskmanagement.dto.MultiGetResponse;
+import com.taskmanagement.dto.SparseField;
 import com.taskmanagement.dto.UpdateUserRequest;
 import com.taskmanagement.dto.UserDTO;
+import com.taskmanagement.dto.UserField;
 import com.taskmanagement.security.UserPrincipal;
 import com.taskmanagement.service.UserService;
 import jakarta.validation.Valid;
@@ -29,14 +32,25 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<UserDTO> users = userService.getAllUsers();
+    public ResponseEntity<List<UserDTO>> getAllUsers(@RequestParam(required = false) String fields) {
+        List<UserDTO> users = userService.getAllUsers(SparseField.parse(UserField.class, fields));
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * The users with the given ids ({@code ?ids=3,1,2}), in that order, in one query per chunk of
+     * ids; unknown ids come back in {@code missingIds}.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<MultiGetResponse<UserDTO>> getUsersByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(userService.getUsersByIds(ids));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<UserDTO> getUserById(@PathVariable Long id) {
-        UserDTO userDTO = userService.getUserById(id);
+    public ResponseEntity<UserDTO> getUserById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields) {
+        UserDTO userDTO = userService.getUserById(id, SparseField.parse(UserField.class, fields));
         return ResponseEntity.ok(userDTO);
     }
 
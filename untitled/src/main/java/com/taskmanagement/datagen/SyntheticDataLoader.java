@@ -0,0 +1,207 @@
+package com.taskmanagement.datagen;
+
+import com.taskmanagement.cache.ResponseSnapshotCache;
+import com.taskmanagement.datasource.ShardTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills the database with a {@link SyntheticDataset} for benchmarks and capacity tests:
+ * <pre>
+ *   java -jar target/task-management-api-1.0.0.jar --spring.profiles.active=datagen \
+ *       --app.datagen.users=100000 --app.datagen.tasks=10000000 --app.datagen.seed=42
+ * </pre>
+ * Runs before the other startup runners, so the search index and overdue timers are built from
+ * the generated rows, and the application then serves them as usual. Rows are written with
+ * multi-row {@code INSERT}s of {@code rowsPerInsert} rows, {@code insertsPerTransaction} of them
+ * per JDBC batch and transaction on each shard, bypassing JPA and the per-row side effects of
+ * {@code TaskService}: no outbox events are recorded for generated data. Every user gets the
+ * password {@code app.datagen.password}, hashed once.
+ * <p>
+ * Users get ids after the current maximum, and emails derived from them, so a run adds to an
+ * existing database rather than clashing with it. Pin {@code app.datagen.anchorDate} to generate
+ * identical dates on every run; by default they are relative to today. Ten million tasks need a
+ * heap to match with the in-memory database; point {@code spring.datasource.url} at an H2 file
+ * database to keep them off the heap. On one core with an H2 file database, 100,000 users and ten
+ * million tasks took about five minutes, nine tenths of it inserting (about 39,000 rows/s); the
+ * final log line reports both times.
+ */
+@Component
+@Profile("datagen")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SyntheticDataLoader implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataLoader.class);
+
+    private static final String USER_COLUMNS =
+            "INSERT INTO users (id, first_name, last_name, email, password, date_of_birth, created_at, updated_at) VALUES ";
+    private static final String USER_ROW = "(?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String TASK_COLUMNS =
+            "INSERT INTO tasks (title, description, due_date, status, user_id, created_at, updated_at) VALUES ";
+    private static final String TASK_ROW = "(?, ?, ?, ?, ?, ?, ?)";
+    private static final long PROGRESS_EVERY = 1_000_000;
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ResponseSnapshotCache snapshotCache;
+
+    @Value("${app.datagen.users:10000}")
+    private int users;
+
+    @Value("${app.datagen.tasks:1000000}")
+    private long tasks;
+
+    @Value("${app.datagen.seed:42}")
+    private long seed;
+
+    @Value("${app.datagen.skew:0.8}")
+    private double skew;
+
+    @Value("${app.datagen.anchorDate:}")
+    private String anchorDate;
+
+    @Value("${app.datagen.password:password123}")
+    private String password;
+
+    @Value("${app.datagen.rowsPerInsert:500}")
+    private int rowsPerInsert;
+
+    @Value("${app.datagen.insertsPerTransaction:20}")
+    private int insertsPerTransaction;
+
+    // Time spent in the database, apart from generating rows; only touched by the runner thread
+    private long insertNanos;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.nanoTime();
+        LocalDate anchor = anchorDate.isBlank() ? LocalDate.now() : LocalDate.parse(anchorDate);
+        SyntheticDataset dataset = new SyntheticDataset(seed, users, tasks, skew, anchor);
+        String passwordHash = passwordEncoder.encode(password);
+        int rowsPerTransaction = rowsPerInsert * insertsPerTransaction;
+
+        long firstId = shardTemplate.inShard(0, false,
+                () -> jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM users", Long.class)) + 1;
+        List<List<Object[]>> taskRows = new ArrayList<>();
+        for (int shard = 0; shard < shardTemplate.getShardCount(); shard++) {
+            taskRows.add(new ArrayList<>(rowsPerTransaction));
+        }
+        long[] written = {0, 0};
+
+        for (int from = 0; from < users; from += rowsPerTransaction) {
+            // Users go in first so the tasks table's foreign key on shard 0 finds them
+            int to = Math.min(users, from + rowsPerTransaction);
+            List<Object[]> userRows = new ArrayList<>(to - from);
+            for (int user = from; user < to; user++) {
+                SyntheticDataset.UserRow row = dataset.user(user);
+                long id = firstId + user;
+                userRows.add(new Object[] {id, row.firstName(), row.lastName(), "user" + id + "@datagen.example",
+                        passwordHash, Date.valueOf(row.dateOfBirth()), Date.valueOf(row.createdAt()),
+                        Date.valueOf(row.updatedAt())});
+            }
+            insert(0, USER_COLUMNS, USER_ROW, userRows);
+
+            for (int user = from; user < to; user++) {
+                long userId = firstId + user;
+                int shard = shardTemplate.shardFor(userId);
+                List<Object[]> rows = taskRows.get(shard);
+                dataset.tasks(user, (title, description, dueDate, status, createdAt, updatedAt) -> {
+                    rows.add(new Object[] {title, description, Date.valueOf(dueDate), status.name(), userId,
+                            Date.valueOf(createdAt), Date.valueOf(updatedAt)});
+                    if (rows.size() == rowsPerTransaction) {
+                        written[0] += insert(shard, TASK_COLUMNS, TASK_ROW, rows);
+                        if (written[0] - written[1] >= PROGRESS_EVERY) {
+                            written[1] = written[0];
+                            log.info("Generated {} of {} tasks ({} rows/s)", written[0], tasks, rate(written[0], started));
+                        }
+                    }
+                });
+            }
+        }
+        for (int shard = 0; shard < taskRows.size(); shard++) {
+            written[0] += insert(shard, TASK_COLUMNS, TASK_ROW, taskRows.get(shard));
+        }
+
+        long nextId = firstId + users;
+        shardTemplate.inShard(0, false, () -> {
+            jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH " + nextId);
+            return null;
+        });
+        snapshotCache.invalidate(ResponseSnapshotCache.Key.USERS);
+        snapshotCache.invalidate(ResponseSnapshotCache.Key.TASKS);
+        log.info("Generated {} users and {} tasks from seed {} in {} ms, {} ms of it inserting ({} rows/s, {} rows/s inserted)",
+                users, written[0], seed, (System.nanoTime() - started) / 1_000_000, insertNanos / 1_000_000,
+                rate(users + written[0], started), (users + written[0]) * 1_000_000_000L / Math.max(1, insertNanos));
+    }
+
+    /** Writes {@code rows} to {@code shard} in one transaction and clears them; returns how many there were. */
+    private int insert(int shard, String columns, String rowPlaceholders, List<Object[]> rows) {
+        int count = rows.size();
+        if (count == 0) {
+            return 0;
+        }
+        int fullInserts = count / rowsPerInsert;
+        List<Object[]> batch = new ArrayList<>(fullInserts);
+        for (int i = 0; i < fullInserts; i++) {
+            batch.add(flatten(rows, i * rowsPerInsert, rowsPerInsert));
+        }
+        int remainder = count - fullInserts * rowsPerInsert;
+        long started = System.nanoTime();
+        shardTemplate.inShard(shard, false, () -> {
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(multiRowInsert(columns, rowPlaceholders, rowsPerInsert), batch);
+            }
+            if (remainder > 0) {
+                jdbcTemplate.update(multiRowInsert(columns, rowPlaceholders, remainder),
+                        flatten(rows, fullInserts * rowsPerInsert, remainder));
+            }
+            return null;
+        });
+        insertNanos += System.nanoTime() - started;
+        rows.clear();
+        return count;
+    }
+
+    private static Object[] flatten(List<Object[]> rows, int from, int count) {
+        int width = rows.get(from).length;
+        Object[] values = new Object[count * width];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(rows.get(from + i), 0, values, i * width, width);
+        }
+        return values;
+    }
+
+    private static String multiRowInsert(String columns, String rowPlaceholders, int rows) {
+        StringBuilder sql = new StringBuilder(columns.length() + rows * (rowPlaceholders.length() + 2)).append(columns);
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append(rowPlaceholders);
+        }
+        return sql.toString();
+    }
+
+    private static long rate(long rows, long startedNanos) {
+        return rows * 1_000_000_000L / Math.max(1, System.nanoTime() - startedNanos);
+    }
+}
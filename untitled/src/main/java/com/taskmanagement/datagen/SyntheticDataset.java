@@ -0,0 +1,189 @@
+package com.taskmanagement.datagen;
+
+import com.taskmanagement.entity.TaskStatus;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic users and tasks. Everything derives from the seed: user {@code i}
+ * always gets the same name, task count and tasks, however the rows are batched or sharded.
+ * <p>
+ * Tasks per user follow a Zipf distribution with exponent {@code skew} (0 is uniform), over a
+ * seeded shuffle of the users so the heavy ones are not simply the first ids. Due dates spread
+ * over the two years before {@code anchorDate} and six months after it; most tasks past due
+ * are {@code DONE}, most future ones are not, and some past due ones are left open so there are
+ * overdue tasks. Titles and descriptions draw words from a small vocabulary with a skewed
+ * frequency, like real text; description lengths are log-normal up to the 1000-character column.
+ */
+public class SyntheticDataset {
+
+    public static final int MAX_DESCRIPTION_LENGTH = 1000;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final String[] FIRST_NAMES = {
+            "Alice", "Bob", "Carol", "David", "Emma", "Farid", "Grace", "Hiro", "Ines", "Jamal",
+            "Kara", "Liam", "Maria", "Noah", "Olga", "Pedro", "Quinn", "Rosa", "Sven", "Tara",
+            "Umar", "Vera", "Wei", "Ximena", "Yusuf", "Zoe"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Garcia", "Nguyen", "Kowalski", "Okafor", "Tanaka", "Muller", "Rossi", "Silva",
+            "Johansson", "Novak", "Haddad", "Kim", "Petrov", "Dubois", "Murphy", "Singh", "Cohen"
+    };
+    private static final String[] VERBS = {
+            "Review", "Update", "Fix", "Prepare", "Schedule", "Write", "Call", "Plan", "Test",
+            "Deploy", "Renew", "Book", "Clean", "Order", "Migrate", "Draft", "Archive", "Check"
+    };
+    // Roughly most frequent first; words are drawn with a bias towards the front
+    private static final String[] WORDS = {
+            "report", "meeting", "team", "client", "budget", "release", "invoice", "project",
+            "review", "notes", "deadline", "email", "design", "document", "server", "database",
+            "contract", "backup", "roadmap", "customer", "payment", "schedule", "presentation",
+            "quarterly", "weekly", "annual", "draft", "final", "urgent", "internal", "vendor",
+            "passport", "insurance", "appointment", "groceries", "dentist", "flight", "hotel",
+            "migration", "onboarding", "feedback", "metrics", "dashboard", "security", "audit",
+            "license", "renewal", "training", "workshop", "proposal", "summary", "analysis",
+            "inventory", "shipment", "warranty", "repair", "garden", "birthday", "tax", "receipt"
+    };
+    private static final String[] FILLER = {
+            "the", "for", "with", "and", "before", "after", "from", "about", "on", "to", "by", "of"
+    };
+
+    private final long seed;
+    private final LocalDate anchorDate;
+    private final int[] taskCounts;
+
+    public SyntheticDataset(long seed, int users, long tasks, double skew, LocalDate anchorDate) {
+        this.seed = seed;
+        this.anchorDate = anchorDate;
+        this.taskCounts = allocate(seed, users, tasks, skew);
+    }
+
+    public int getUserCount() {
+        return taskCounts.length;
+    }
+
+    public int taskCount(int user) {
+        return taskCounts[user];
+    }
+
+    public UserRow user(int user) {
+        SplittableRandom random = random(user, 0);
+        String firstName = pick(random, FIRST_NAMES);
+        String lastName = pick(random, LAST_NAMES);
+        LocalDate createdAt = anchorDate.minusDays(730 + random.nextInt(365));
+        return new UserRow(firstName, lastName, anchorDate.minusYears(18).minusDays(random.nextInt(365 * 50)),
+                createdAt, createdAt.plusDays(random.nextInt(730)));
+    }
+
+    /** Calls {@code sink} with each of the user's tasks, in a fixed order. */
+    public void tasks(int user, TaskSink sink) {
+        SplittableRandom random = random(user, 1);
+        StringBuilder text = new StringBuilder(MAX_DESCRIPTION_LENGTH + 32);
+        for (int i = 0; i < taskCounts[user]; i++) {
+            LocalDate createdAt = anchorDate.minusDays(random.nextInt(730));
+            LocalDate dueDate = createdAt.plusDays(random.nextInt(181));
+            LocalDate updatedAt = createdAt.plusDays(random.nextLong(ChronoUnit.DAYS.between(createdAt, anchorDate) + 1));
+            sink.accept(title(random, text), description(random, text), dueDate, status(random, dueDate),
+                    createdAt, updatedAt);
+        }
+    }
+
+    /** Receives one generated task. */
+    @FunctionalInterface
+    public interface TaskSink {
+        void accept(String title, String description, LocalDate dueDate, TaskStatus status,
+                    LocalDate createdAt, LocalDate updatedAt);
+    }
+
+    public record UserRow(String firstName, String lastName, LocalDate dateOfBirth,
+                          LocalDate createdAt, LocalDate updatedAt) {
+    }
+
+    private TaskStatus status(SplittableRandom random, LocalDate dueDate) {
+        int roll = random.nextInt(100);
+        if (dueDate.isBefore(anchorDate)) {
+            return roll < 85 ? TaskStatus.DONE : roll < 93 ? TaskStatus.IN_PROGRESS : TaskStatus.TODO;
+        }
+        return roll < 55 ? TaskStatus.TODO : roll < 90 ? TaskStatus.IN_PROGRESS : TaskStatus.DONE;
+    }
+
+    private static String title(SplittableRandom random, StringBuilder text) {
+        text.setLength(0);
+        text.append(pick(random, VERBS));
+        int words = 1 + random.nextInt(4);
+        for (int i = 0; i < words; i++) {
+            text.append(' ').append(word(random));
+        }
+        return text.toString();
+    }
+
+    private static String description(SplittableRandom random, StringBuilder text) {
+        if (random.nextInt(5) == 0) {
+            return null;
+        }
+        // Log-normal around 80 characters: mostly short notes, a long tail up to the column size
+        double length = Math.exp(Math.log(80) + random.nextGaussian());
+        int target = (int) Math.max(10, Math.min(MAX_DESCRIPTION_LENGTH, length));
+        text.setLength(0);
+        while (text.length() < target) {
+            if (text.length() > 0) {
+                text.append(' ');
+            }
+            text.append(random.nextInt(3) == 0 ? pick(random, FILLER) : word(random));
+        }
+        text.setLength(target);
+        return text.toString().stripTrailing();
+    }
+
+    private static String word(SplittableRandom random) {
+        double u = random.nextDouble();
+        return WORDS[(int) (u * u * WORDS.length)];
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private SplittableRandom random(int user, int stream) {
+        return new SplittableRandom(seed + (2L * user + stream + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Splits {@code tasks} over {@code users} in proportion to {@code 1 / rank^skew}, with ranks
+     * assigned by a seeded shuffle. Rounding leftovers go to the highest ranks.
+     */
+    private static int[] allocate(long seed, int users, long tasks, double skew) {
+        int[] counts = new int[users];
+        if (users == 0) {
+            return counts;
+        }
+        int[] userByRank = new int[users];
+        for (int i = 0; i < users; i++) {
+            userByRank[i] = i;
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = users - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = userByRank[i];
+            userByRank[i] = userByRank[j];
+            userByRank[j] = swap;
+        }
+
+        double totalWeight = 0;
+        for (int rank = 1; rank <= users; rank++) {
+            totalWeight += Math.pow(rank, -skew);
+        }
+        long assigned = 0;
+        for (int rank = 1; rank <= users; rank++) {
+            int count = (int) Math.min(Integer.MAX_VALUE, (long) (tasks * Math.pow(rank, -skew) / totalWeight));
+            counts[userByRank[rank - 1]] = count;
+            assigned += count;
+        }
+        for (int rank = 0; assigned < tasks; rank = (rank + 1) % users, assigned++) {
+            counts[userByRank[rank]]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,173 @@
+package com.taskmanagement.datasource;
+
+import com.taskmanagement.security.UserPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to a healthy read replica (round robin) and everything else to
+ * the primary. Reads fall back to the primary when no replica is healthy, when the current
+ * user wrote within the read-your-writes window, or inside {@link #onPrimary(Supplier)}.
+ * Work bound to a task shard other than 0 through {@link ShardContext} goes to that shard.
+ * Must sit behind a {@code LazyConnectionDataSourceProxy} so the transaction's read-only flag
+ * is known by the time a connection is actually fetched.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final List<DataSource> replicas;
+    private final String[] replicaKeys;
+    private final String[] shardKeys;
+    private volatile boolean[] healthy;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final ScheduledExecutorService healthChecker;
+
+    /**
+     * @param shards the primaries of task shards 1..N-1; shard 0 is {@code primary}
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, List<DataSource> shards,
+                                      ReadYourWritesTracker readYourWritesTracker, long healthCheckIntervalMs) {
+        this.replicas = replicas;
+        this.replicaKeys = new String[replicas.size()];
+        boolean[] status = new boolean[replicas.size()];
+        this.readYourWritesTracker = readYourWritesTracker;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            replicaKeys[i] = "replica-" + i;
+            status[i] = true;
+            targets.put(replicaKeys[i], replicas.get(i));
+        }
+        this.shardKeys = new String[shards.size() + 1];
+        shardKeys[0] = PRIMARY;
+        for (int i = 0; i < shards.size(); i++) {
+            shardKeys[i + 1] = "shard-" + (i + 1);
+            targets.put(shardKeys[i + 1], shards.get(i));
+        }
+        this.healthy = status;
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        if (replicas.isEmpty()) {
+            this.healthChecker = null;
+        } else {
+            this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "replica-health-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            healthChecker.scheduleWithFixedDelay(this::checkReplicas,
+                    healthCheckIntervalMs, healthCheckIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Runs {@code work} with every connection on this thread routed to the primary, for
+     * callers that must not observe replica lag (e.g. rebuilding cached responses).
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            } else {
+                FORCE_PRIMARY.set(previous);
+            }
+        }
+    }
+
+    public static boolean isPrimaryForced() {
+        return FORCE_PRIMARY.get() != null;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        if (shard != null && shard != 0) {
+            return shardKeys[shard];
+        }
+
+        Long userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWritesTracker.recordWrite(userId);
+            }
+            return PRIMARY;
+        }
+        if (FORCE_PRIMARY.get() != null || (userId != null && readYourWritesTracker.wroteRecently(userId))) {
+            return PRIMARY;
+        }
+        return nextHealthyReplica();
+    }
+
+    public void shutdown() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+    }
+
+    private Object nextHealthyReplica() {
+        int count = replicaKeys.length;
+        if (count == 0) {
+            return PRIMARY;
+        }
+        boolean[] status = healthy;
+        int start = Math.floorMod(nextReplica.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            int index = (start + i) % count;
+            if (status[index]) {
+                return replicaKeys[index];
+            }
+        }
+        return PRIMARY;
+    }
+
+    private void checkReplicas() {
+        boolean[] previous = healthy;
+        boolean[] current = new boolean[replicas.size()];
+        for (int i = 0; i < replicas.size(); i++) {
+            boolean up;
+            try (Connection connection = replicas.get(i).getConnection()) {
+                up = connection.isValid(2);
+            } catch (Exception ex) {
+                up = false;
+            }
+            if (up != previous[i]) {
+                log.warn("Read replica {} is now {}", replicaKeys[i], up ? "healthy" : "unhealthy");
+            }
+            current[i] = up;
+        }
+        healthy = current;
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+}
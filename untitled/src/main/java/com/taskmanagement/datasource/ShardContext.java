@@ -0,0 +1,27 @@
+package com.taskmanagement.datasource;
+
+/**
+ * Thread-bound shard selection consulted by {@link ReadWriteRoutingDataSource}. Unset means
+ * shard 0, which is the primary (and its replicas).
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    static Integer set(Integer shard) {
+        Integer previous = CURRENT.get();
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+        return previous;
+    }
+}
@@ -0,0 +1,207 @@
+package com.taskmanagement.datasource;
+
+import jakarta.annotation.PostConstruct;
+import com.taskmanagement.cache.InvalidationBus;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prepares the task shards and moves users between them.
+ * <p>
+ * At startup (with more than one shard) it creates the {@code tasks}, {@code archived_tasks} and
+ * {@code outbox_events} tables on shards 1..N-1, interleaves the identity columns so shard {@code k} only hands out
+ * ids congruent to {@code k + 1 (mod N)} - task ids stay globally unique - and loads explicit
+ * user assignments from {@code shard_assignments} on shard 0.
+ * <p>
+ * A user can be moved from the command line with
+ * {@code --rebalance.userId=<id> --rebalance.targetShard=<shard>}. The move copies the user's
+ * task and archived task rows, records the assignment, then deletes the source rows; run it while the user is
+ * not writing tasks and once the source shard's outbox has drained, so their task events stay
+ * in order.
+ * <p>
+ * Each move is published on the {@link InvalidationBus}, so other instances route the user to
+ * the new shard without a restart; an instance that missed messages re-reads {@code shard_assignments}.
+ */
+@Component
+public class ShardRebalancer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private static final String TOPIC = "shard-assignments";
+
+    private static final String SELECT_USER_TASKS =
+            "SELECT id, title, description, due_date, status, user_id, created_at, updated_at FROM tasks WHERE user_id = ?";
+    private static final String INSERT_TASK =
+            "INSERT INTO tasks (id, title, description, due_date, status, user_id, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_USER_ARCHIVED_TASKS =
+            "SELECT id, title, description, due_date, status, user_id, created_at, updated_at, archived_at "
+                    + "FROM archived_tasks WHERE user_id = ?";
+    private static final String INSERT_ARCHIVED_TASK =
+            "INSERT INTO archived_tasks (id, title, description, due_date, status, user_id, created_at, updated_at, archived_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    // Ensures Hibernate has created the schema on shard 0 before it is adjusted here
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void prepareShards() {
+        int shardCount = shardRouter.getShardCount();
+        if (shardCount == 1) {
+            return;
+        }
+
+        for (int shard = 1; shard < shardCount; shard++) {
+            shardTemplate.inShard(shard, false, () -> {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS tasks ("
+                        + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                        + "title VARCHAR(255) NOT NULL, "
+                        + "description VARCHAR(1000), "
+                        + "due_date DATE NOT NULL, "
+                        + "status VARCHAR(32) NOT NULL, "
+                        + "user_id BIGINT NOT NULL, "
+                        + "created_at DATE NOT NULL, "
+                        + "updated_at DATE NOT NULL)");
+                jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_tasks_user_id ON tasks (user_id)");
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS archived_tasks ("
+                        + "id BIGINT PRIMARY KEY, "
+                        + "title VARCHAR(255) NOT NULL, "
+                        + "description VARCHAR(1000), "
+                        + "due_date DATE NOT NULL, "
+                        + "status VARCHAR(32) NOT NULL, "
+                        + "user_id BIGINT NOT NULL, "
+                        + "created_at DATE NOT NULL, "
+                        + "updated_at DATE NOT NULL, "
+                        + "archived_at DATE NOT NULL)");
+                jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_archived_tasks_user ON archived_tasks (user_id)");
+                // Task events are written to the outbox of the task's shard, in the same transaction
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS outbox_events ("
+                        + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                        + "aggregate_type VARCHAR(16) NOT NULL, "
+                        + "aggregate_id BIGINT NOT NULL, "
+                        + "event_type VARCHAR(16) NOT NULL, "
+                        + "payload VARCHAR(8000) NOT NULL, "
+                        + "created_at TIMESTAMP(6) NOT NULL)");
+                return null;
+            });
+        }
+
+        for (int shard = 0; shard < shardCount; shard++) {
+            int residue = shard + 1;
+            shardTemplate.inShard(shard, false, () -> {
+                Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tasks", Long.class);
+                long next = maxId - Math.floorMod(maxId, shardCount) + residue;
+                if (next <= maxId) {
+                    next += shardCount;
+                }
+                jdbcTemplate.execute("ALTER TABLE tasks ALTER COLUMN id RESTART WITH " + next);
+                jdbcTemplate.execute("ALTER TABLE tasks ALTER COLUMN id SET INCREMENT BY " + shardCount);
+                return null;
+            });
+        }
+
+        shardTemplate.inShard(0, false, () -> {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS shard_assignments ("
+                    + "user_id BIGINT PRIMARY KEY, shard INT NOT NULL)");
+            return null;
+        });
+        loadAssignments();
+
+        invalidationBus.subscribe(TOPIC, key -> {
+            if (key == null) {
+                loadAssignments();
+            } else {
+                int separator = key.indexOf(':');
+                shardRouter.assign(Long.valueOf(key.substring(0, separator)),
+                        Integer.parseInt(key.substring(separator + 1)));
+            }
+        });
+    }
+
+    private void loadAssignments() {
+        RowCallbackHandler loadAssignment = rs -> shardRouter.assign(rs.getLong("user_id"), rs.getInt("shard"));
+        // The primary, not a replica that may not have the latest move yet
+        shardTemplate.inShard(0, false, () -> {
+            jdbcTemplate.query("SELECT user_id, shard FROM shard_assignments", loadAssignment);
+            return null;
+        });
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption("rebalance.userId") || !args.containsOption("rebalance.targetShard")) {
+            return;
+        }
+        Long userId = Long.valueOf(args.getOptionValues("rebalance.userId").get(0));
+        int targetShard = Integer.parseInt(args.getOptionValues("rebalance.targetShard").get(0));
+        int moved = moveUser(userId, targetShard);
+        log.info("Moved {} tasks of user {} to shard {}", moved, userId, targetShard);
+    }
+
+    /**
+     * @return the number of task rows moved
+     */
+    public int moveUser(Long userId, int targetShard) {
+        if (targetShard < 0 || targetShard >= shardRouter.getShardCount()) {
+            throw new IllegalArgumentException("No such shard: " + targetShard);
+        }
+        int sourceShard = shardRouter.shardFor(userId);
+        if (sourceShard == targetShard) {
+            return 0;
+        }
+
+        List<Map<String, Object>> rows = shardTemplate.inShard(sourceShard, true,
+                () -> jdbcTemplate.queryForList(SELECT_USER_TASKS, userId));
+
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            batch.add(new Object[] {
+                    row.get("id"), row.get("title"), row.get("description"), row.get("due_date"),
+                    row.get("status"), row.get("user_id"), row.get("created_at"), row.get("updated_at")
+            });
+        }
+        List<Object[]> archivedBatch = shardTemplate.inShard(sourceShard, true,
+                () -> jdbcTemplate.query(SELECT_USER_ARCHIVED_TASKS, (rs, rowNum) -> new Object[] {
+                        rs.getObject(1), rs.getObject(2), rs.getObject(3), rs.getObject(4), rs.getObject(5),
+                        rs.getObject(6), rs.getObject(7), rs.getObject(8), rs.getObject(9)
+                }, userId));
+        shardTemplate.inShard(targetShard, false, () -> {
+            jdbcTemplate.batchUpdate(INSERT_TASK, batch);
+            return jdbcTemplate.batchUpdate(INSERT_ARCHIVED_TASK, archivedBatch);
+        });
+
+        shardTemplate.inShard(0, false, () -> jdbcTemplate.update(
+                "MERGE INTO shard_assignments (user_id, shard) KEY (user_id) VALUES (?, ?)", userId, targetShard));
+        shardRouter.assign(userId, targetShard);
+        invalidationBus.publish(TOPIC, userId + ":" + targetShard);
+
+        shardTemplate.inShard(sourceShard, false, () -> {
+            jdbcTemplate.update("DELETE FROM archived_tasks WHERE user_id = ?", userId);
+            return jdbcTemplate.update("DELETE FROM tasks WHERE user_id = ?", userId);
+        });
+        return rows.size();
+    }
+}
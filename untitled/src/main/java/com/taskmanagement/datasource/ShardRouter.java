@@ -0,0 +1,94 @@
+package com.taskmanagement.datasource;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps a user id to a task shard with a consistent-hash ring (virtual nodes per shard), so
+ * adding a shard only moves about 1/N of the users. Explicit assignments made by
+ * {@link ShardRebalancer} take precedence over the ring.
+ */
+public class ShardRouter {
+
+    private static final int VIRTUAL_NODES_PER_SHARD = 128;
+
+    private final int shardCount;
+    private final long[] ringPoints;
+    private final int[] ringOwners;
+    private final Map<Long, Integer> assignments = new ConcurrentHashMap<>();
+
+    public ShardRouter(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shardCount = shardCount;
+
+        int size = shardCount * VIRTUAL_NODES_PER_SHARD;
+        long[][] points = new long[size][];
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int node = 0; node < VIRTUAL_NODES_PER_SHARD; node++) {
+                long point = vnodePoint(shard, node);
+                points[shard * VIRTUAL_NODES_PER_SHARD + node] = new long[] {point, shard};
+            }
+        }
+        Arrays.sort(points, (a, b) -> Long.compare(a[0], b[0]));
+
+        this.ringPoints = new long[size];
+        this.ringOwners = new int[size];
+        for (int i = 0; i < size; i++) {
+            ringPoints[i] = points[i][0];
+            ringOwners[i] = (int) points[i][1];
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardFor(Long userId) {
+        if (shardCount == 1) {
+            return 0;
+        }
+        Integer assigned = assignments.get(userId);
+        if (assigned != null) {
+            return assigned;
+        }
+        return ringShardFor(userId);
+    }
+
+    int ringShardFor(Long userId) {
+        int index = Arrays.binarySearch(ringPoints, mix(userId));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return ringOwners[index == ringPoints.length ? 0 : index];
+    }
+
+    void assign(Long userId, int shard) {
+        if (shard == ringShardFor(userId)) {
+            assignments.remove(userId);
+        } else {
+            assignments.put(userId, shard);
+        }
+    }
+
+    // FNV-1a of "shard-S#N" before the finalizer keeps ring points in a different hash domain
+    // from user ids; mixing small integers for both would land user id k exactly on a vnode
+    static long vnodePoint(int shard, int node) {
+        String key = "shard-" + shard + "#" + node;
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    // SplitMix64 finalizer: cheap and spreads sequential ids evenly around the ring
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
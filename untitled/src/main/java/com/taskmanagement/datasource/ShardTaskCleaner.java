@@ -0,0 +1,116 @@
+package com.taskmanagement.datasource;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes the tasks of a deleted user whose tasks live on a shard other than 0.
+ * <p>
+ * The user row (shard 0) and their tasks are in different databases, so one transaction cannot
+ * delete both. The user is deleted first: {@link #deleteTasksAfterCommit} records a
+ * {@code pending_task_cleanups} row in that same shard-0 transaction and, once it has committed,
+ * deletes the user's tasks and archived tasks on their shard, then the row. The delete is
+ * idempotent, and rows left behind by an unreachable shard or a crash are retried every
+ * {@code app.sharding.cleanupRetryMs}. A failure therefore leaves tasks without a user - still
+ * listed by {@code GET /api/tasks} until the retry succeeds - never a user without their tasks.
+ */
+@Component
+public class ShardTaskCleaner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardTaskCleaner.class);
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.sharding.cleanupRetryMs:60000}")
+    private long retryMs;
+
+    private final ScheduledExecutorService retrier = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "shard-task-cleaner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void createTable() {
+        if (shardTemplate.getShardCount() == 1) {
+            return;
+        }
+        shardTemplate.inShard(0, false, () -> {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS pending_task_cleanups ("
+                    + "user_id BIGINT PRIMARY KEY, shard INT NOT NULL)");
+            return null;
+        });
+    }
+
+    // A runner, so cleanups left by a previous run are retried even when the bean would be created lazily
+    @Override
+    public void run(ApplicationArguments args) {
+        if (shardTemplate.getShardCount() > 1) {
+            retrier.scheduleWithFixedDelay(this::retryPending, retryMs, retryMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        retrier.shutdownNow();
+    }
+
+    /**
+     * Called in the shard-0 transaction that deletes user {@code userId}, whose tasks are on
+     * {@code shard} (not 0); the tasks are deleted once that transaction commits.
+     */
+    public void deleteTasksAfterCommit(Long userId, int shard) {
+        jdbcTemplate.update("INSERT INTO pending_task_cleanups (user_id, shard) VALUES (?, ?)", userId, shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    deleteTasks(userId, shard);
+                } catch (RuntimeException e) {
+                    log.warn("Could not delete tasks of deleted user {} on shard {}; will retry", userId, shard, e);
+                }
+            }
+        });
+    }
+
+    private void deleteTasks(Long userId, int shard) {
+        shardTemplate.inNewTransaction(shard, () -> {
+            jdbcTemplate.update("DELETE FROM archived_tasks WHERE user_id = ?", userId);
+            return jdbcTemplate.update("DELETE FROM tasks WHERE user_id = ?", userId);
+        });
+        shardTemplate.inNewTransaction(0, () ->
+                jdbcTemplate.update("DELETE FROM pending_task_cleanups WHERE user_id = ?", userId));
+    }
+
+    private void retryPending() {
+        try {
+            List<Map<String, Object>> pending = shardTemplate.inShard(0, false, () ->
+                    jdbcTemplate.queryForList("SELECT user_id, shard FROM pending_task_cleanups"));
+            for (Map<String, Object> row : pending) {
+                deleteTasks(((Number) row.get("user_id")).longValue(), ((Number) row.get("shard")).intValue());
+            }
+        } catch (RuntimeException e) {
+            // An exception would cancel the schedule
+            log.warn("Retrying task cleanup of deleted users failed", e);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.taskmanagement.datasource;
+
+import com.taskmanagement.tracing.RequestTrace;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Runs work in a transaction bound to one task shard. The shard is selected before the
+ * transaction starts, so every connection the transaction touches comes from that shard.
+ */
+@Component
+public class ShardTemplate {
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Scatters that can run at once before they queue; each holds a pool thread per shard but one
+    @Value("${app.sharding.scatterConcurrency:16}")
+    private int scatterConcurrency;
+
+    private ExecutorService scatterExecutor;
+
+    public int getShardCount() {
+        return shardRouter.getShardCount();
+    }
+
+    public int shardFor(Long userId) {
+        return shardRouter.shardFor(userId);
+    }
+
+    public <T> T inUserShard(Long userId, boolean readOnly, Supplier<T> work) {
+        return inShard(shardRouter.shardFor(userId), readOnly, work);
+    }
+
+    /**
+     * Joins the current transaction when it is already bound to {@code shard}; a transaction on
+     * another shard is suspended and the work runs in its own transaction on {@code shard}.
+     */
+    public <T> T inShard(int shard, boolean readOnly, Supplier<T> work) {
+        Integer current = ShardContext.current();
+        boolean switchingShards = TransactionSynchronizationManager.isActualTransactionActive()
+                && (current == null ? 0 : current) != shard;
+        return execute(shard, readOnly, switchingShards, work);
+    }
+
+    /**
+     * Runs {@code work} in a new read-write transaction on {@code shard}, suspending any current
+     * one. After-commit callbacks need this: the committed transaction is still bound to the
+     * thread there, and {@link #inShard} would join it and never commit.
+     */
+    public <T> T inNewTransaction(int shard, Supplier<T> work) {
+        return execute(shard, false, true, work);
+    }
+
+    private <T> T execute(int shard, boolean readOnly, boolean requiresNew, Supplier<T> work) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        if (requiresNew) {
+            template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+
+        Integer previous = ShardContext.set(shard);
+        try {
+            return template.execute(status -> work.get());
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    /**
+     * Runs {@code work} once per shard, in parallel when there is more than one, and returns
+     * the results in shard order. Shard 0 runs on the calling thread and the others on a pool
+     * of {@code app.sharding.scatterConcurrency} threads per extra shard, so that many scatters
+     * proceed at once before any waits for a pool thread.
+     */
+    public <T> List<T> onAllShards(boolean readOnly, IntFunction<T> work) {
+        int shardCount = shardRouter.getShardCount();
+        if (shardCount == 1) {
+            return List.of(inShard(0, readOnly, () -> work.apply(0)));
+        }
+
+        boolean primaryForced = ReadWriteRoutingDataSource.isPrimaryForced();
+        RequestTrace trace = RequestTrace.current();
+        List<CompletableFuture<T>> futures = new ArrayList<>(shardCount - 1);
+        for (int shard = 1; shard < shardCount; shard++) {
+            int target = shard;
+            Supplier<T> task = () -> RequestTrace.runIn(trace, () -> inShard(target, readOnly, () -> work.apply(target)));
+            futures.add(CompletableFuture.supplyAsync(
+                    primaryForced ? () -> ReadWriteRoutingDataSource.onPrimary(task) : task, scatterExecutor()));
+        }
+
+        List<T> results = new ArrayList<>(shardCount);
+        results.add(inShard(0, readOnly, () -> work.apply(0)));
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+        return results;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+
+    private synchronized ExecutorService scatterExecutor() {
+        if (scatterExecutor == null) {
+            int threads = scatterConcurrency * (shardRouter.getShardCount() - 1);
+            scatterExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "shard-scatter");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scatterExecutor;
+    }
+}
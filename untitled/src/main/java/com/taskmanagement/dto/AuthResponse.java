@@ -12,6 +12,8 @@ import lombok.NoArgsConstructor;
 public class AuthResponse {
     private String token;
     private String type;
+    private long expiresIn;
+    private String refreshToken;
     private Long userId;
     private String email;
 
@@ -21,5 +23,12 @@ public class AuthResponse {
         this.userId = userId;
         this.email = email;
     }
+
+    /** {@code expiresIn} is the access token lifetime in seconds. */
+    public AuthResponse(String token, long expiresIn, String refreshToken, Long userId, String email) {
+        this(token, userId, email);
+        this.expiresIn = expiresIn;
+        this.refreshToken = refreshToken;
+    }
 }
 
@@ -0,0 +1,43 @@
+package com.taskmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJobDTO {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+
+    private String id;
+    private Status status;
+    private String format;
+    private long totalBytes;
+    private long processedBytes;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsRejected;
+    private List<RowError> errors;
+    private String message;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,15 @@
+package com.taskmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/** The result of a lookup by {@code ?ids=}: the items found in the order asked, and the ids that were not. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiGetResponse<T> {
+    private List<T> items;
+    private List<Long> missingIds;
+}
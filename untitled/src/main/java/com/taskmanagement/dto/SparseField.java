@@ -0,0 +1,65 @@
+package com.taskmanagement.dto;
+
+import com.taskmanagement.exception.BadRequestException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A DTO property that can be selected with {@code ?fields=}, and the entity attributes it is
+ * read from. The id is always selected: results are merged and paged by it.
+ */
+public interface SparseField {
+
+    /** The property name in the JSON body. */
+    String getName();
+
+    /** The entity attributes the property is computed from. */
+    List<String> getAttributes();
+
+    /**
+     * Parses a comma-separated {@code fields} parameter; null when it is absent, meaning every
+     * field. Unknown names are rejected rather than ignored, so a typo does not silently
+     * return less than the client expects.
+     */
+    static <E extends Enum<E> & SparseField> Set<E> parse(Class<E> type, String fields) {
+        if (fields == null) {
+            return null;
+        }
+        Set<E> selected = EnumSet.noneOf(type);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            E field = null;
+            for (E candidate : type.getEnumConstants()) {
+                if (candidate.getName().equals(trimmed)) {
+                    field = candidate;
+                    break;
+                }
+            }
+            if (field == null) {
+                List<String> known = new ArrayList<>();
+                for (E candidate : type.getEnumConstants()) {
+                    known.add(candidate.getName());
+                }
+                throw new BadRequestException("Unknown field '" + trimmed + "'; expected some of " + known);
+            }
+            selected.add(field);
+        }
+        return selected;
+    }
+
+    /** The attributes to select for {@code fields}: the id, then each field's, without duplicates. */
+    static List<String> attributes(Set<? extends SparseField> fields) {
+        Set<String> attributes = new LinkedHashSet<>();
+        attributes.add("id");
+        for (SparseField field : fields) {
+            attributes.addAll(field.getAttributes());
+        }
+        return new ArrayList<>(attributes);
+    }
+}
@@ -2,11 +2,13 @@ package com.taskmanagement.dto;
 
 import com.taskmanagement.entity.TaskStatus;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDate;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
@@ -22,11 +24,17 @@ public class TaskDTO {
 
     private TaskStatus status;
     private Long userId;
+    private boolean overdue;
+    private boolean archived;
 
     @JsonFormat(pattern = "yyyy-MM-dd")
     private LocalDate createdAt;
 
     @JsonFormat(pattern = "yyyy-MM-dd")
     private LocalDate updatedAt;
+
+    // The fields selected with ?fields=, the only ones that are set and written; null for all
+    @JsonIgnore
+    private Set<TaskField> fields;
 }
 
@@ -0,0 +1,36 @@
+package com.taskmanagement.dto;
+
+import java.util.List;
+
+/** The {@link TaskDTO} properties a client can select. */
+public enum TaskField implements SparseField {
+    ID("id", "id"),
+    TITLE("title", "title"),
+    DESCRIPTION("description", "description"),
+    DUE_DATE("dueDate", "dueDate"),
+    STATUS("status", "status"),
+    USER_ID("userId", "userId"),
+    OVERDUE("overdue", "dueDate", "status"),
+    // Known from the table the row came from
+    ARCHIVED("archived"),
+    CREATED_AT("createdAt", "createdAt"),
+    UPDATED_AT("updatedAt", "updatedAt");
+
+    private final String name;
+    private final List<String> attributes;
+
+    TaskField(String name, String... attributes) {
+        this.name = name;
+        this.attributes = List.of(attributes);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public List<String> getAttributes() {
+        return attributes;
+    }
+}
@@ -1,11 +1,13 @@
 package com.taskmanagement.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDate;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
@@ -25,5 +27,9 @@ public class UserDTO {
 
     @JsonFormat(pattern = "yyyy-MM-dd")
     private LocalDate updatedAt;
+
+    // The fields selected with ?fields=, the only ones that are set and written; null for all
+    @JsonIgnore
+    private Set<UserField> fields;
 }
 
@@ -0,0 +1,30 @@
+package com.taskmanagement.dto;
+
+import java.util.List;
+
+/** The {@link UserDTO} properties a client can select. */
+public enum UserField implements SparseField {
+    ID("id"),
+    FIRST_NAME("firstName"),
+    LAST_NAME("lastName"),
+    EMAIL("email"),
+    DATE_OF_BIRTH("dateOfBirth"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    private final String name;
+
+    UserField(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public List<String> getAttributes() {
+        return List.of(name);
+    }
+}
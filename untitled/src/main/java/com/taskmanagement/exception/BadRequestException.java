@@ -0,0 +1,7 @@
+package com.taskmanagement.exception;
+
+public class BadRequestException extends DomainException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
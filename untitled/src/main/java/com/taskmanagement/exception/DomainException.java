@@ -0,0 +1,17 @@
+package com.taskmanagement.exception;
+
+/**
+ * Base for expected, client-facing failures (not found, unauthorized, conflict). These are
+ * control flow answered with a 4xx, not bugs, so they skip the stack trace capture that would
+ * otherwise dominate the cost of every error response.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+
+    protected DomainException(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
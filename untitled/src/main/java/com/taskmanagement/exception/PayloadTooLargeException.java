@@ -0,0 +1,7 @@
+package com.taskmanagement.exception;
+
+public class PayloadTooLargeException extends DomainException {
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,263 @@
+package com.taskmanagement.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanagement.exception.ErrorResponse;
+import com.taskmanagement.security.UserPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes {@code POST /api/tasks} and {@code POST /api/users/register} safe to retry: a request
+ * carrying an {@code Idempotency-Key} header runs once, and repeats of it get the first
+ * response back with {@code Idempotent-Replayed: true} - no second task, no second BCrypt hash.
+ * Keys are scoped to the authenticated user (anonymous registrations to the route and client IP,
+ * so one client cannot replay or block another's), and a key reused with a different body is rejected
+ * with 422. A duplicate arriving while the first request is still running waits up to
+ * {@code app.idempotency.waitMs} for its response, then gets a 409. Server errors are not
+ * remembered, so the retry runs again. Requests without the header are not affected.
+ * <p>
+ * Registered as a plain servlet filter, so it runs after the security filter chain and
+ * rejected or rate-limited requests never claim a key.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.idempotency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.idempotency.waitMs:10000}")
+    private long waitMs;
+
+    @Value("${app.idempotency.maxBodyBytes:65536}")
+    private int maxBodyBytes;
+
+    private Counter executed;
+    private Counter replayed;
+    private Counter inProgress;
+    private Counter mismatched;
+
+    @PostConstruct
+    void initMetrics() {
+        executed = Counter.builder("idempotency.requests").tag("outcome", "executed").register(meterRegistry);
+        replayed = Counter.builder("idempotency.requests").tag("outcome", "replayed")
+                .description("Retries answered with the stored response")
+                .register(meterRegistry);
+        inProgress = Counter.builder("idempotency.requests").tag("outcome", "in_progress").register(meterRegistry);
+        mismatched = Counter.builder("idempotency.requests").tag("outcome", "mismatched").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !"POST".equals(request.getMethod()) || request.getHeader(KEY_HEADER) == null) {
+            return true;
+        }
+        String uri = request.getRequestURI();
+        return !"/api/tasks".equals(uri) && !"/api/users/register".equals(uri);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(KEY_HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            reject(request, response, HttpStatus.BAD_REQUEST,
+                    KEY_HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            reject(request, response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Bodies sent with " + KEY_HEADER + " are limited to " + maxBodyBytes + " bytes");
+            return;
+        }
+
+        String key = scope(request) + ":" + idempotencyKey;
+        String fingerprint = IdempotencyStore.hash(request.getRequestURI(),
+                new String(body, StandardCharsets.ISO_8859_1));
+        while (true) {
+            IdempotencyStore.Claim claim = store.claim(key, fingerprint);
+            if (!claim.entry().getFingerprint().equals(fingerprint)) {
+                mismatched.increment();
+                reject(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        KEY_HEADER + " was already used for a different request");
+                return;
+            }
+            if (claim.owner()) {
+                execute(new CachedBodyRequest(request, body), response, filterChain, key, claim);
+                return;
+            }
+
+            IdempotencyStore.StoredResponse stored;
+            try {
+                stored = claim.entry().await(waitMs);
+            } catch (TimeoutException e) {
+                inProgress.increment();
+                reject(request, response, HttpStatus.CONFLICT,
+                        "A request with this " + KEY_HEADER + " is still in progress");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException("Interrupted waiting for " + KEY_HEADER + " " + idempotencyKey, e);
+            }
+            if (stored != null) {
+                replay(response, stored);
+                return;
+            }
+            // The first request failed and let go of the key; try to take it over
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String key, IdempotencyStore.Claim claim) throws ServletException, IOException {
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, captured);
+            if (captured.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                store.complete(key, claim, new IdempotencyStore.StoredResponse(
+                        captured.getStatus(), captured.getContentType(), captured.getContentAsByteArray()));
+                completed = true;
+                executed.increment();
+            }
+        } finally {
+            if (!completed) {
+                store.abandon(key, claim);
+            }
+        }
+        captured.copyBodyToResponse();
+    }
+
+    private void replay(HttpServletResponse response, IdempotencyStore.StoredResponse stored) throws IOException {
+        replayed.increment();
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        byte[] body = stored.body() == null ? new byte[0] : stored.body();
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    // Registration is anonymous, so its keys are told apart by where they came from
+    private static String scope(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return "user-" + principal.getId();
+        }
+        return "anonymous-" + request.getRequestURI() + "-" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(status, message, request.getRequestURI()));
+    }
+
+    /** Serves the body that was read for fingerprinting to the rest of the chain. */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it can all be read and finished straight away
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.taskmanagement.idempotency;
+
+import com.taskmanagement.cache.InvalidationBus;
+import com.taskmanagement.datasource.ReadWriteRoutingDataSource;
+import com.taskmanagement.entity.IdempotencyRecord;
+import com.taskmanagement.repository.IdempotencyRecordRepository;
+import com.taskmanagement.security.ExpiringBloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Recent {@code Idempotency-Key}s and the responses they produced, for {@link IdempotencyFilter}.
+ * <p>
+ * Keys are kept in memory for {@code app.idempotency.ttlMs} after their request completes, so a
+ * retry is answered without touching the database. A key whose request is still running holds a
+ * future that concurrent duplicates park on; every claim registers its key, and running keys
+ * are never evicted. Beyond {@code app.idempotency.maxEntries}, each claim evicts the oldest
+ * completed keys, so the map only exceeds the bound by the number of requests in flight.
+ * <p>
+ * With {@code app.idempotency.persistent}, completed responses are also written to
+ * {@code idempotency_keys}, so retries survive eviction and restarts. An {@link ExpiringBloomFilter}
+ * of the persisted keys, loaded at startup and shared over the {@link InvalidationBus}, keeps
+ * first-time keys away from the table; only a filter hit reads it. The row is written after the
+ * request's own transaction has committed, so a crash in between leaves the retry to run again,
+ * as does a retry reaching another node before the filter update does.
+ * Expired keys and rows are dropped every {@code app.idempotency.cleanupMs}, off the request path.
+ */
+@Component
+public class IdempotencyStore implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private static final String TOPIC = "idempotency";
+
+    // Queue nodes examined per claim; stale and running ones are skipped, so the queue still drains
+    private static final int EVICTION_ATTEMPTS = 8;
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Value("${app.idempotency.maxEntries:10000}")
+    private int maxEntries;
+
+    @Value("${app.idempotency.ttlMs:86400000}")
+    private long ttlMs;
+
+    @Value("${app.idempotency.persistent:true}")
+    private boolean persistent;
+
+    @Value("${app.idempotency.cleanupMs:600000}")
+    private long cleanupMs;
+
+    @Value("${app.idempotency.expectedPerWindow:100000}")
+    private int expectedPerWindow;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Entries in the order they were registered; nodes whose key has moved on are dropped lazily
+    private final ConcurrentLinkedQueue<Entry> order = new ConcurrentLinkedQueue<>();
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private ExpiringBloomFilter persistedKeys;
+    private Counter evicted;
+    private Counter falsePositives;
+
+    private final ScheduledExecutorService cleanup = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "idempotency-cleanup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("idempotency.keys", entries, ConcurrentHashMap::size)
+                .description("Idempotency keys held in memory")
+                .register(meterRegistry);
+        evicted = Counter.builder("idempotency.evictions")
+                .description("Completed keys dropped from memory to stay within maxEntries")
+                .register(meterRegistry);
+        falsePositives = Counter.builder("idempotency.lookups").tag("outcome", "false_positive")
+                .description("Bloom filter hits the table did not confirm")
+                .register(meterRegistry);
+        persistedKeys = new ExpiringBloomFilter(ttlMs, expectedPerWindow);
+        invalidationBus.subscribe(TOPIC, key -> {
+            if (key == null) {
+                if (persistent) {
+                    cleanup.execute(this::loadPersistedKeys);
+                }
+            } else {
+                int separator = key.indexOf(':');
+                persistedKeys.put(Long.parseLong(key.substring(0, separator)), Long.parseLong(key.substring(separator + 1)),
+                        System.currentTimeMillis());
+            }
+        });
+        cleanup.scheduleWithFixedDelay(this::deleteExpired, cleanupMs, cleanupMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (persistent) {
+            loadPersistedKeys();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        cleanup.shutdownNow();
+    }
+
+    /**
+     * Claims {@code key} for a request whose method, path and body hash to {@code fingerprint}.
+     * The owner of the returned claim runs the request and then calls {@link #complete} or
+     * {@link #abandon}; anyone else gets the entry of the earlier request to {@link Entry#await}.
+     */
+    public Claim claim(String key, String fingerprint) {
+        Entry created = new Entry(key, fingerprint);
+        long now = System.nanoTime();
+        while (true) {
+            Entry existing = entries.putIfAbsent(key, created);
+            if (existing == null) {
+                break;
+            }
+            if (!existing.isExpired(now)) {
+                return new Claim(existing, false);
+            }
+            entries.remove(key, existing);
+        }
+        order.add(created);
+        evictOldest();
+
+        IdempotencyRecord record = persistent ? find(key) : null;
+        if (record == null) {
+            return new Claim(created, true);
+        }
+        Entry loaded = new Entry(key, record.getFingerprint());
+        loaded.complete(new StoredResponse(record.getStatus(), record.getContentType(), record.getBody()), now + ttlNanos());
+        if (entries.replace(key, created, loaded)) {
+            order.add(loaded);
+        }
+        // Duplicates already parked on the claim re-claim the key and find the loaded entry
+        created.complete(null, now);
+        return new Claim(loaded, false);
+    }
+
+    /** Records the owner's response for retries of {@code key}. */
+    public void complete(String key, Claim claim, StoredResponse response) {
+        long expiresAtNanos = System.nanoTime() + ttlNanos();
+        if (persistent) {
+            try {
+                String keyHash = hash(key);
+                long expiresAtMillis = System.currentTimeMillis() + ttlMs;
+                recordRepository.save(IdempotencyRecord.builder()
+                        .keyHash(keyHash)
+                        .fingerprint(claim.entry().getFingerprint())
+                        .status(response.status())
+                        .contentType(response.contentType())
+                        .body(response.body())
+                        .expiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMillis), zone))
+                        .build());
+                long keyFingerprint = ExpiringBloomFilter.fingerprint(keyHash);
+                persistedKeys.put(keyFingerprint, expiresAtMillis, System.currentTimeMillis());
+                invalidationBus.publish(TOPIC, keyFingerprint + ":" + expiresAtMillis);
+            } catch (DataAccessException e) {
+                log.warn("Could not persist idempotency key; retries after a restart will run again", e);
+            }
+        }
+        claim.entry().complete(response, expiresAtNanos);
+    }
+
+    /** Forgets {@code key} so that a retry runs the request again, e.g. after a server error. */
+    public void abandon(String key, Claim claim) {
+        entries.remove(key, claim.entry());
+        claim.entry().complete(null, System.nanoTime());
+    }
+
+    /** SHA-256 of the parts, in hex. */
+    public static String hash(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    // Drops the oldest completed entries while the map is over its bound
+    private void evictOldest() {
+        for (int attempt = 0; attempt < EVICTION_ATTEMPTS && entries.size() > maxEntries; attempt++) {
+            Entry oldest = order.poll();
+            if (oldest == null) {
+                return;
+            }
+            if (entries.get(oldest.key) != oldest) {
+                continue;
+            }
+            if (!oldest.done) {
+                order.add(oldest);
+            } else if (entries.remove(oldest.key, oldest)) {
+                evicted.increment();
+            }
+        }
+    }
+
+    private IdempotencyRecord find(String key) {
+        String keyHash = hash(key);
+        if (!persistedKeys.mightContain(ExpiringBloomFilter.fingerprint(keyHash), System.currentTimeMillis())) {
+            return null;
+        }
+        try {
+            // The row is written on the primary moments before a fast retry may look for it
+            Optional<IdempotencyRecord> record = ReadWriteRoutingDataSource.onPrimary(() ->
+                    recordRepository.findByKeyHashAndExpiresAtAfter(keyHash, LocalDateTime.now()));
+            if (record.isEmpty()) {
+                falsePositives.increment();
+            }
+            return record.orElse(null);
+        } catch (DataAccessException e) {
+            log.warn("Could not read idempotency key; running the request", e);
+            return null;
+        }
+    }
+
+    private long ttlNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    }
+
+    private void loadPersistedKeys() {
+        try {
+            long now = System.currentTimeMillis();
+            int[] loaded = {0};
+            ReadWriteRoutingDataSource.onPrimary(() -> recordRepository.findLiveKeys(LocalDateTime.now(zone)))
+                    .forEach(row -> {
+                        long expiresAtMillis = ((LocalDateTime) row[1]).atZone(zone).toInstant().toEpochMilli();
+                        persistedKeys.put(ExpiringBloomFilter.fingerprint((String) row[0]), expiresAtMillis, now);
+                        loaded[0]++;
+                    });
+            log.info("Loaded {} idempotency keys", loaded[0]);
+        } catch (RuntimeException e) {
+            log.warn("Loading idempotency keys failed", e);
+        }
+    }
+
+    private void deleteExpired() {
+        try {
+            long now = System.nanoTime();
+            entries.values().removeIf(entry -> entry.isExpired(now));
+            order.removeIf(entry -> entries.get(entry.key) != entry);
+            if (persistent) {
+                recordRepository.deleteExpired(LocalDateTime.now());
+            }
+        } catch (RuntimeException e) {
+            // An exception would cancel the schedule
+            log.warn("Idempotency key cleanup failed", e);
+        }
+    }
+
+    /** A key's entry, and whether the claimant owns it. */
+    public record Claim(Entry entry, boolean owner) {
+    }
+
+    /** The captured response of a completed request. */
+    public record StoredResponse(int status, String contentType, byte[] body) {
+    }
+
+    public static final class Entry {
+        private final String key;
+        private final String fingerprint;
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+        // Running requests never expire; they are completed or abandoned when they finish
+        private volatile long expiresAtNanos;
+        private volatile boolean done;
+
+        private Entry(String key, String fingerprint) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * Waits up to {@code timeoutMs} for the request holding the key. Returns its response, or
+         * null if it was abandoned and the key should be claimed again.
+         */
+        public StoredResponse await(long timeoutMs) throws InterruptedException, TimeoutException {
+            try {
+                return response.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        private void complete(StoredResponse stored, long expiresAtNanos) {
+            this.expiresAtNanos = expiresAtNanos;
+            this.done = true;
+            response.complete(stored);
+        }
+
+        private boolean isExpired(long now) {
+            return done && expiresAtNanos - now <= 0;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.taskmanagement.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.taskmanagement.exception.ErrorResponse;
+import org.springframework.boot.jackson.JsonComponent;
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+
+import static com.taskmanagement.json.TaskDTOSerializer.writeString;
+
+/**
+ * Streaming serializer for {@link ErrorResponse}. Everything but the timestamp, message and path
+ * is fixed per status, so the status/error pair is pre-encoded once per status code and reused;
+ * 404s from scrapers are common enough for this to matter.
+ */
+@JsonComponent
+public class ErrorResponseSerializer extends StdSerializer<ErrorResponse> {
+
+    private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString ERROR = new SerializedString("error");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString PATH = new SerializedString("path");
+
+    // Indexed by status code; filled lazily; a racy double fill only builds an identical value.
+    private static final SerializedString[] REASONS = new SerializedString[600];
+
+    public ErrorResponseSerializer() {
+        super(ErrorResponse.class);
+    }
+
+    @Override
+    public void serialize(ErrorResponse error, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(error);
+        gen.writeFieldName(TIMESTAMP);
+        if (error.getTimestamp() != null) {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(error.getTimestamp()));
+        } else {
+            gen.writeNull();
+        }
+        gen.writeFieldName(STATUS);
+        gen.writeNumber(error.getStatus());
+        gen.writeFieldName(ERROR);
+        SerializedString reason = reason(error.getStatus(), error.getError());
+        if (reason != null) {
+            gen.writeString(reason);
+        } else {
+            gen.writeNull();
+        }
+        writeString(gen, MESSAGE, error.getMessage());
+        writeString(gen, PATH, error.getPath());
+        gen.writeEndObject();
+    }
+
+    private static SerializedString reason(int status, String phrase) {
+        if (phrase == null) {
+            return null;
+        }
+        if (status < 0 || status >= REASONS.length) {
+            return new SerializedString(phrase);
+        }
+        SerializedString cached = REASONS[status];
+        if (cached == null || !cached.getValue().equals(phrase)) {
+            cached = new SerializedString(phrase);
+            REASONS[status] = cached;
+        }
+        return cached;
+    }
+}
@@ -0,0 +1,43 @@
+package com.taskmanagement.json;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+import java.time.LocalDate;
+
+/**
+ * Direct-mapped cache of pre-quoted {@code yyyy-MM-dd} renderings keyed by epoch day.
+ * Task and user dates cluster around a small set of days, so a lookup is usually a single
+ * array read instead of a formatter call and a fresh String per field.
+ */
+final class LocalDateTextCache {
+
+    private static final int SIZE = 4096;
+    private static final int MASK = SIZE - 1;
+
+    private static final Entry[] ENTRIES = new Entry[SIZE];
+
+    private LocalDateTextCache() {
+    }
+
+    static SerializedString get(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        int slot = (int) (epochDay & MASK);
+        Entry entry = ENTRIES[slot];
+        if (entry != null && entry.epochDay == epochDay) {
+            return entry.text;
+        }
+        // LocalDate.toString() is ISO-8601, i.e. yyyy-MM-dd for four-digit years
+        SerializedString text = new SerializedString(date.toString());
+        ENTRIES[slot] = new Entry(epochDay, text);
+        return text;
+    }
+
+    private static final class Entry {
+        private final long epochDay;
+        private final SerializedString text;
+
+        private Entry(long epochDay, SerializedString text) {
+            this.epochDay = epochDay;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.taskmanagement.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.taskmanagement.dto.TaskDTO;
+import com.taskmanagement.dto.TaskField;
+import org.springframework.boot.jackson.JsonComponent;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Writes {@link TaskDTO} straight through the streaming API with pre-encoded field names,
+ * bypassing the reflective bean serializer. Output matches the annotated DTO field for field,
+ * limited to the DTO's selected fields when it has them.
+ */
+@JsonComponent
+public class TaskDTOSerializer extends StdSerializer<TaskDTO> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString TITLE = new SerializedString("title");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString DUE_DATE = new SerializedString("dueDate");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString USER_ID = new SerializedString("userId");
+    private static final SerializedString OVERDUE = new SerializedString("overdue");
+    private static final SerializedString ARCHIVED = new SerializedString("archived");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+
+    public TaskDTOSerializer() {
+        super(TaskDTO.class);
+    }
+
+    @Override
+    public void serialize(TaskDTO task, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        Set<TaskField> fields = task.getFields();
+        gen.writeStartObject(task);
+        writeNumber(gen, ID, task.getId());
+        if (selected(fields, TaskField.TITLE)) {
+            writeString(gen, TITLE, task.getTitle());
+        }
+        if (selected(fields, TaskField.DESCRIPTION)) {
+            writeString(gen, DESCRIPTION, task.getDescription());
+        }
+        if (selected(fields, TaskField.DUE_DATE)) {
+            writeDate(gen, DUE_DATE, task.getDueDate());
+        }
+        if (selected(fields, TaskField.STATUS)) {
+            writeString(gen, STATUS, task.getStatus() != null ? task.getStatus().name() : null);
+        }
+        if (selected(fields, TaskField.USER_ID)) {
+            writeNumber(gen, USER_ID, task.getUserId());
+        }
+        if (selected(fields, TaskField.OVERDUE)) {
+            gen.writeFieldName(OVERDUE);
+            gen.writeBoolean(task.isOverdue());
+        }
+        if (selected(fields, TaskField.ARCHIVED)) {
+            gen.writeFieldName(ARCHIVED);
+            gen.writeBoolean(task.isArchived());
+        }
+        if (selected(fields, TaskField.CREATED_AT)) {
+            writeDate(gen, CREATED_AT, task.getCreatedAt());
+        }
+        if (selected(fields, TaskField.UPDATED_AT)) {
+            writeDate(gen, UPDATED_AT, task.getUpdatedAt());
+        }
+        gen.writeEndObject();
+    }
+
+    // The id is always written; null fields means a full DTO
+    static <E extends Enum<E>> boolean selected(Set<E> fields, E field) {
+        return fields == null || fields.contains(field);
+    }
+
+    static void writeNumber(JsonGenerator gen, SerializedString name, Long value) throws IOException {
+        gen.writeFieldName(name);
+        if (value != null) {
+            gen.writeNumber(value.longValue());
+        } else {
+            gen.writeNull();
+        }
+    }
+
+    static void writeString(JsonGenerator gen, SerializedString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        gen.writeString(value);
+    }
+
+    static void writeDate(JsonGenerator gen, SerializedString name, LocalDate value) throws IOException {
+        gen.writeFieldName(name);
+        if (value != null) {
+            gen.writeString(LocalDateTextCache.get(value));
+        } else {
+            gen.writeNull();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.taskmanagement.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.taskmanagement.dto.UserDTO;
+import com.taskmanagement.dto.UserField;
+import org.springframework.boot.jackson.JsonComponent;
+import java.io.IOException;
+import java.util.Set;
+
+import static com.taskmanagement.json.TaskDTOSerializer.selected;
+import static com.taskmanagement.json.TaskDTOSerializer.writeDate;
+import static com.taskmanagement.json.TaskDTOSerializer.writeNumber;
+import static com.taskmanagement.json.TaskDTOSerializer.writeString;
+
+/**
+ * Streaming counterpart of {@link TaskDTOSerializer} for {@link UserDTO}.
+ */
+@JsonComponent
+public class UserDTOSerializer extends StdSerializer<UserDTO> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializedString LAST_NAME = new SerializedString("lastName");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString DATE_OF_BIRTH = new SerializedString("dateOfBirth");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+
+    public UserDTOSerializer() {
+        super(UserDTO.class);
+    }
+
+    @Override
+    public void serialize(UserDTO user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        Set<UserField> fields = user.getFields();
+        gen.writeStartObject(user);
+        writeNumber(gen, ID, user.getId());
+        if (selected(fields, UserField.FIRST_NAME)) {
+            writeString(gen, FIRST_NAME, user.getFirstName());
+        }
+        if (selected(fields, UserField.LAST_NAME)) {
+            writeString(gen, LAST_NAME, user.getLastName());
+        }
+        if (selected(fields, UserField.EMAIL)) {
+            writeString(gen, EMAIL, user.getEmail());
+        }
+        if (selected(fields, UserField.DATE_OF_BIRTH)) {
+            writeDate(gen, DATE_OF_BIRTH, user.getDateOfBirth());
+        }
+        if (selected(fields, UserField.CREATED_AT)) {
+            writeDate(gen, CREATED_AT, user.getCreatedAt());
+        }
+        if (selected(fields, UserField.UPDATED_AT)) {
+            writeDate(gen, UPDATED_AT, user.getUpdatedAt());
+        }
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,65 @@
+package com.taskmanagement.outbox;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanagement.entity.OutboxEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Appends events as newline-delimited JSON to {@code app.outbox.file}, one object per event with
+ * the original payload embedded. Each batch is forced to disk before it counts as published.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.publisher", havingValue = "file")
+public class FileOutboxPublisher implements OutboxPublisher {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.outbox.file:outbox-events.ndjson}")
+    private String file;
+
+    private FileOutputStream out;
+
+    @Override
+    public synchronized void publish(int shard, List<OutboxEvent> events) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(events.size() * 256);
+        for (OutboxEvent event : events) {
+            try (JsonGenerator gen = objectMapper.getFactory().createGenerator(buffer)) {
+                gen.writeStartObject();
+                gen.writeNumberField("shard", shard);
+                gen.writeNumberField("id", event.getId());
+                gen.writeStringField("aggregateType", event.getAggregateType().name());
+                gen.writeNumberField("aggregateId", event.getAggregateId());
+                gen.writeStringField("eventType", event.getEventType().name());
+                gen.writeStringField("createdAt", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(event.getCreatedAt()));
+                gen.writeFieldName("payload");
+                gen.writeRawValue(event.getPayload());
+                gen.writeEndObject();
+            }
+            buffer.write('\n');
+        }
+
+        if (out == null) {
+            out = new FileOutputStream(file, true);
+        }
+        buffer.writeTo(out);
+        out.getChannel().force(false);
+    }
+
+    @PreDestroy
+    synchronized void close() throws IOException {
+        if (out != null) {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.taskmanagement.outbox;
+
+import com.taskmanagement.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recently published events in memory. Stands in for a broker locally and in tests.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.publisher", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOutboxPublisher implements OutboxPublisher {
+
+    @Value("${app.outbox.memory.capacity:10000}")
+    private int capacity;
+
+    private final Deque<OutboxEvent> published = new ArrayDeque<>();
+
+    @Override
+    public synchronized void publish(int shard, List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            if (published.size() == capacity) {
+                published.removeFirst();
+            }
+            published.addLast(event);
+        }
+    }
+
+    public synchronized List<OutboxEvent> getPublished() {
+        return new ArrayList<>(published);
+    }
+}
@@ -0,0 +1,69 @@
+package com.taskmanagement.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanagement.entity.OutboxEvent;
+import com.taskmanagement.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records domain changes for {@link OutboxRelay} to publish. Must be called inside the
+ * transaction making the change - on the same shard - so the event commits or rolls back with it.
+ */
+@Component
+public class Outbox {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEvent.AggregateType aggregateType, Long aggregateId,
+                       OutboxEvent.EventType eventType, Object payload) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .payload(toJson(aggregateType, aggregateId, payload))
+                .build());
+    }
+
+    /**
+     * Records one event per entry, in iteration order, as a single JDBC batch; for bulk writes
+     * where an entity insert per event would cost more than the change itself.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(OutboxEvent.AggregateType aggregateType, OutboxEvent.EventType eventType,
+                          Map<Long, ?> payloadsByAggregateId) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(payloadsByAggregateId.size());
+        for (Map.Entry<Long, ?> entry : payloadsByAggregateId.entrySet()) {
+            rows.add(new Object[] {aggregateType.name(), entry.getKey(), eventType.name(),
+                    toJson(aggregateType, entry.getKey(), entry.getValue()), createdAt});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, created_at) "
+                + "VALUES (?, ?, ?, ?, ?)", rows);
+    }
+
+    private String toJson(OutboxEvent.AggregateType aggregateType, Long aggregateId, Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + aggregateType + " " + aggregateId + " event", e);
+        }
+    }
+}
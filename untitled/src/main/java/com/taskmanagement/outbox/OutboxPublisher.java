@@ -0,0 +1,16 @@
+package com.taskmanagement.outbox;
+
+import com.taskmanagement.entity.OutboxEvent;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination for relayed outbox events. A batch holds one shard's events in commit order; it
+ * is removed from the outbox only after {@code publish} returns, so a failed or interrupted
+ * batch is delivered again and consumers must tolerate duplicates ({@code shard} plus event id
+ * identifies an event).
+ */
+public interface OutboxPublisher {
+
+    void publish(int shard, List<OutboxEvent> events) throws IOException;
+}
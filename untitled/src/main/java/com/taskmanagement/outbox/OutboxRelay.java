@@ -0,0 +1,152 @@
+package com.taskmanagement.outbox;
+
+import com.taskmanagement.datasource.ShardTemplate;
+import com.taskmanagement.entity.OutboxEvent;
+import com.taskmanagement.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains every shard's outbox to the {@link OutboxPublisher} on a single background thread.
+ * <p>
+ * Each batch is read, published and deleted in one transaction on its shard, so an event is
+ * deleted only once published (at-least-once) and a failed batch is retried before anything
+ * behind it. Events are read in id order and an aggregate's events all live on one shard, so
+ * per-aggregate order is kept. Run the relay on one instance only
+ * ({@code app.outbox.relay.enabled=false} elsewhere); two relays would interleave batches. The
+ * flag is read when the relay starts rather than as a bean condition, which an AOT build would fix
+ * at build time.
+ */
+@Component
+public class OutboxRelay implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxPublisher publisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.outbox.relay.pollMs:200}")
+    private long pollMs;
+
+    @Value("${app.outbox.relay.batchSize:500}")
+    private int batchSize;
+
+    private final ScheduledExecutorService relayExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Age of the oldest unpublished event seen by the last pass
+    private final AtomicLong lagMs = new AtomicLong();
+
+    private Counter published;
+    private Counter failures;
+    private Timer batchTimer;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("outbox.relay.lag", lagMs, AtomicLong::get)
+                .description("Age in milliseconds of the oldest unpublished outbox event")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        published = Counter.builder("outbox.relay.published").register(meterRegistry);
+        failures = Counter.builder("outbox.relay.failures").register(meterRegistry);
+        batchTimer = Timer.builder("outbox.relay.batch").register(meterRegistry);
+    }
+
+    // Started once the shards' outbox tables exist
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        relayExecutor.scheduleWithFixedDelay(this::drain, 0, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        relayExecutor.shutdownNow();
+    }
+
+    private void drain() {
+        long oldestMs = 0;
+        for (int shard = 0; shard < shardTemplate.getShardCount(); shard++) {
+            try {
+                long[] shardLag = {0};
+                int relayed;
+                do {
+                    relayed = relayBatch(shard, shardLag);
+                } while (relayed == batchSize);
+                oldestMs = Math.max(oldestMs, shardLag[0]);
+            } catch (RuntimeException e) {
+                // The batch stays in the outbox and is retried first on the next pass
+                failures.increment();
+                log.warn("Outbox relay for shard {} failed", shard, e);
+            }
+        }
+        lagMs.set(oldestMs);
+    }
+
+    private int relayBatch(int shard, long[] lag) {
+        return shardTemplate.inShard(shard, false, () -> {
+            List<OutboxEvent> batch = outboxEventRepository.findAllByOrderByIdAsc(Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            if (lag[0] == 0) {
+                lag[0] = Duration.between(batch.get(0).getCreatedAt(), LocalDateTime.now()).toMillis();
+            }
+
+            long started = System.nanoTime();
+            try {
+                publisher.publish(shard, batch);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+            List<Long> ids = new ArrayList<>(batch.size());
+            for (OutboxEvent event : batch) {
+                ids.add(event.getId());
+            }
+            outboxEventRepository.deleteAllByIdInBatch(ids);
+            published.increment(batch.size());
+            return batch.size();
+        });
+    }
+}
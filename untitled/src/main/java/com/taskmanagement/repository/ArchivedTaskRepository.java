@@ -0,0 +1,34 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.entity.ArchivedTask;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+    List<ArchivedTask> findByUserIdOrderByIdAsc(Long userId);
+    List<ArchivedTask> findAllByOrderByIdAsc();
+    List<ArchivedTask> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    List<ArchivedTask> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedTask t WHERE t.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedTask t WHERE t.id = :id AND t.userId = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    /** Copies the archived task back into {@code tasks} under its own id; returns 0 when it is not archived. */
+    @Modifying
+    @Query(value = "INSERT INTO tasks (id, title, description, due_date, status, user_id, created_at, updated_at) "
+            + "SELECT id, title, description, due_date, status, user_id, created_at, updated_at FROM archived_tasks "
+            + "WHERE id = :id AND user_id = :userId", nativeQuery = true)
+    int copyToTasks(@Param("id") Long id, @Param("userId") Long userId);
+}
@@ -0,0 +1,66 @@
+package com.taskmanagement.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Criteria tuple query behind the {@code findSelected} fragments: selects only the given
+ * attributes, each under its alias, with optional equality filters and a keyset cursor, in id
+ * order. No entities are loaded, so nothing enters the persistence context.
+ */
+final class SelectedColumnsQuery {
+
+    private SelectedColumnsQuery() {
+    }
+
+    /**
+     * @param columns alias to attribute path; a path may follow a to-one association by its id
+     *                ({@code user.id}), which reads the foreign key column without a join
+     * @param equal attribute path to required value; null values are skipped
+     */
+    static List<Tuple> select(EntityManager entityManager, Class<?> entity, Map<String, String> columns,
+                              Map<String, Object> equal, Long afterId, Integer limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> root = query.from(entity);
+
+        List<Selection<?>> selections = new ArrayList<>(columns.size());
+        columns.forEach((alias, attribute) -> selections.add(path(root, attribute).alias(alias)));
+        List<Predicate> predicates = new ArrayList<>();
+        equal.forEach((attribute, value) -> {
+            if (value != null) {
+                predicates.add(cb.equal(path(root, attribute), value));
+            }
+        });
+        if (afterId != null) {
+            predicates.add(cb.gt(root.get("id"), afterId));
+        }
+        query.multiselect(selections)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(root.get("id")));
+
+        TypedQuery<Tuple> typed = entityManager.createQuery(query);
+        if (limit != null) {
+            typed.setMaxResults(limit);
+        }
+        return typed.getResultList();
+    }
+
+    private static Path<?> path(Root<?> root, String attribute) {
+        Path<?> path = root;
+        for (String part : attribute.split("\\.")) {
+            path = path.get(part);
+        }
+        return path;
+    }
+}
@@ -1,14 +1,27 @@
 package com.taskmanagement.repository;
 
 import com.taskmanagement.entity.Task;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
     List<Task> findByUserId(Long userId);
     Optional<Task> findByIdAndUserId(Long id, Long userId);
+    List<Task> findAllByOrderByIdAsc();
+    List<Task> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    List<Task> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long id, Limit limit);
+    List<Task> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
 }
 
@@ -0,0 +1,17 @@
+package com.taskmanagement.repository;
+
+import jakarta.persistence.Tuple;
+import java.util.List;
+
+/** Projections of tasks onto a subset of their attributes, for sparse fieldsets. */
+public interface TaskRepositoryCustom {
+
+    /**
+     * The given attributes (aliased by name) of live tasks, in id order. Each of {@code id},
+     * {@code userId}, {@code afterId} and {@code limit} narrows the result when not null.
+     */
+    List<Tuple> findSelected(List<String> attributes, Long id, Long userId, Long afterId, Integer limit);
+
+    /** As {@link #findSelected}, over {@code archived_tasks}. */
+    List<Tuple> findSelectedArchived(List<String> attributes, Long id, Long userId, Long afterId, Integer limit);
+}
@@ -0,0 +1,41 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.entity.ArchivedTask;
+import com.taskmanagement.entity.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> findSelected(List<String> attributes, Long id, Long userId, Long afterId, Integer limit) {
+        // Live tasks reference their owner through the association
+        return select(Task.class, "user.id", attributes, id, userId, afterId, limit);
+    }
+
+    @Override
+    public List<Tuple> findSelectedArchived(List<String> attributes, Long id, Long userId, Long afterId,
+                                            Integer limit) {
+        return select(ArchivedTask.class, "userId", attributes, id, userId, afterId, limit);
+    }
+
+    private List<Tuple> select(Class<?> entity, String userIdPath, List<String> attributes, Long id, Long userId,
+                               Long afterId, Integer limit) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        for (String attribute : attributes) {
+            columns.put(attribute, "userId".equals(attribute) ? userIdPath : attribute);
+        }
+        Map<String, Object> equal = new HashMap<>();
+        equal.put("id", id);
+        equal.put(userIdPath, userId);
+        return SelectedColumnsQuery.select(entityManager, entity, columns, equal, afterId, limit);
+    }
+}
@@ -0,0 +1,11 @@
+package com.taskmanagement.repository;
+
+import jakarta.persistence.Tuple;
+import java.util.List;
+
+/** Projections of users onto a subset of their attributes, for sparse fieldsets. */
+public interface UserRepositoryCustom {
+
+    /** The given attributes (aliased by name) of every user in id order, or of user {@code id} when not null. */
+    List<Tuple> findSelected(List<String> attributes, Long id);
+}
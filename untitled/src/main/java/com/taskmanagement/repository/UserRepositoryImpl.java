@@ -0,0 +1,25 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> findSelected(List<String> attributes, Long id) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        attributes.forEach(attribute -> columns.put(attribute, attribute));
+        Map<String, Object> equal = new HashMap<>();
+        equal.put("id", id);
+        return SelectedColumnsQuery.select(entityManager, User.class, columns, equal, null, null);
+    }
+}
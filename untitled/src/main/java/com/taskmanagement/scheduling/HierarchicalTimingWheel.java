@@ -0,0 +1,153 @@
+package com.taskmanagement.scheduling;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical (cascading) timing wheel: {@value #LEVELS} levels of {@value #SLOTS} slots, each
+ * level's slot spanning a whole turn of the level below. Scheduling and cancelling are O(1) -
+ * a timer is linked into one slot's list - and each timer is moved down at most once per level
+ * as its deadline approaches. With a one second tick the wheel spans about 2,000 years; later
+ * deadlines wait in the top level and are re-filed whenever it comes round.
+ * <p>
+ * Time is counted in ticks; the owner drives it with {@link #advanceTo(long, Consumer)}. Not
+ * thread-safe: callers serialize access.
+ */
+final class HierarchicalTimingWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+    private static final long MAX_DELTA = (1L << (BITS * LEVELS)) - 1;
+
+    /** A scheduled entry; {@link #cancel(Timer)} unlinks it. */
+    static final class Timer<T> {
+        private final T payload;
+        private final long deadlineTick;
+        private Timer<T> prev;
+        private Timer<T> next;
+        private boolean linked;
+        private int level;
+        private int index;
+
+        private Timer(T payload, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        T getPayload() {
+            return payload;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private final Timer<T>[][] slots = new Timer[LEVELS][SLOTS];
+    private long currentTick;
+    private int size;
+
+    HierarchicalTimingWheel(long startTick) {
+        this.currentTick = startTick;
+    }
+
+    long getCurrentTick() {
+        return currentTick;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Schedules {@code payload} to expire at {@code deadlineTick}; past deadlines expire on the next tick. */
+    Timer<T> schedule(long deadlineTick, T payload) {
+        // The current tick's slot has already been run
+        Timer<T> timer = new Timer<>(payload, Math.max(deadlineTick, currentTick + 1));
+        file(timer);
+        size++;
+        return timer;
+    }
+
+    void cancel(Timer<T> timer) {
+        if (timer.linked) {
+            unlink(timer);
+            size--;
+        }
+    }
+
+    /** Moves the wheel forward to {@code tick}, handing every timer that comes due to {@code expired}. */
+    void advanceTo(long tick, Consumer<T> expired) {
+        while (currentTick < tick) {
+            currentTick++;
+            // When a level wraps, pull the next slot of the level above down to finer slots
+            long t = currentTick;
+            for (int level = 1; level < LEVELS && (t & MASK) == 0; level++) {
+                t >>>= BITS;
+                cascade(level, (int) (t & MASK));
+            }
+
+            int index = (int) (currentTick & MASK);
+            Timer<T> timer = slots[0][index];
+            slots[0][index] = null;
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                timer.prev = null;
+                timer.next = null;
+                timer.linked = false;
+                size--;
+                expired.accept(timer.payload);
+                timer = next;
+            }
+        }
+    }
+
+    private void cascade(int level, int index) {
+        Timer<T> timer = slots[level][index];
+        slots[level][index] = null;
+        while (timer != null) {
+            Timer<T> next = timer.next;
+            timer.prev = null;
+            timer.next = null;
+            file(timer);
+            timer = next;
+        }
+    }
+
+    // Deadlines are never behind the wheel here; a cascade can file one due this very tick, into
+    // the level 0 slot that advanceTo runs right after cascading
+    private void file(Timer<T> timer) {
+        long delta = timer.deadlineTick - currentTick;
+        long deadline = timer.deadlineTick;
+        if (delta > MAX_DELTA) {
+            deadline = currentTick + MAX_DELTA;
+            delta = MAX_DELTA;
+        }
+
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        int index = (int) ((deadline >>> (BITS * level)) & MASK);
+        Timer<T> head = slots[level][index];
+        timer.next = head;
+        if (head != null) {
+            head.prev = timer;
+        }
+        slots[level][index] = timer;
+        timer.linked = true;
+        timer.level = level;
+        timer.index = index;
+    }
+
+    private void unlink(Timer<T> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            slots[timer.level][timer.index] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.linked = false;
+    }
+}
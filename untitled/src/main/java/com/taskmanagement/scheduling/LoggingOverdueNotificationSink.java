@@ -0,0 +1,18 @@
+package com.taskmanagement.scheduling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "app.overdue.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingOverdueNotificationSink implements OverdueNotificationSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingOverdueNotificationSink.class);
+
+    @Override
+    public void taskOverdue(OverdueTask task) {
+        log.info("Task {} of user {} is overdue (due {}): {}", task.getTaskId(), task.getUserId(), task.getDueDate(), task.getTitle());
+    }
+}
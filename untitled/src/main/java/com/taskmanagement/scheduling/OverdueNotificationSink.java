@@ -0,0 +1,10 @@
+package com.taskmanagement.scheduling;
+
+/**
+ * Receives a task the moment it becomes overdue. Called on the scheduler's tick thread, so
+ * implementations must not block; hand slow work off.
+ */
+public interface OverdueNotificationSink {
+
+    void taskOverdue(OverdueTask task);
+}
@@ -0,0 +1,323 @@
+package com.taskmanagement.scheduling;
+
+import com.taskmanagement.cache.ResponseSnapshotCache;
+import com.taskmanagement.datasource.ShardTemplate;
+import com.taskmanagement.dto.TaskDTO;
+import com.taskmanagement.entity.Task;
+import com.taskmanagement.entity.TaskStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flags tasks as overdue when their due date passes while they are not {@code DONE}.
+ * <p>
+ * Every open task has one timer in a {@link HierarchicalTimingWheel}, due at the start of the
+ * day after its due date; scheduling, rescheduling and cancelling are O(1) and a tick only
+ * touches the timers that come due, so there is never a scan of the tasks table after the
+ * initial load at startup. {@code TaskService} keeps the wheel in sync after each write
+ * commits. An expiring timer flags the task for {@code GET /api/tasks/user/{userId}/overdue}
+ * and is handed to the {@link OverdueNotificationSink}.
+ * <p>
+ * A task created or moved to a date already past is flagged on the next tick. Tasks that are
+ * already past due when the startup load reads them are flagged at once without a notification:
+ * they were notified by the instance that saw them come due, so restarts and new instances do
+ * not send every overdue notification again. A task that came due while no instance was running
+ * is flagged without being notified.
+ */
+@Component
+public class OverdueScheduler implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(OverdueScheduler.class);
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OverdueNotificationSink sink;
+
+    @Autowired
+    private ResponseSnapshotCache snapshotCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.overdue.tickMs:1000}")
+    private long tickMs;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    // All state below is guarded by this
+    private HierarchicalTimingWheel<OverdueTask> wheel;
+    private final Map<Long, HierarchicalTimingWheel.Timer<OverdueTask>> timers = new HashMap<>();
+    private final Map<Long, OverdueTask> overdue = new HashMap<>();
+    private final Map<Long, Set<Long>> overdueByUser = new HashMap<>();
+
+    // While the startup load runs, ids written live are recorded so older rows read by the
+    // load cannot overwrite them
+    private final Set<Long> touchedTasks = new HashSet<>();
+    private final Set<Long> touchedUsers = new HashSet<>();
+    private boolean loading;
+
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "overdue-timing-wheel");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Counter notifications;
+
+    @PostConstruct
+    void init() {
+        wheel = new HierarchicalTimingWheel<>(currentTick());
+        Gauge.builder("overdue.scheduled", this, scheduler -> scheduler.count(false))
+                .description("Open tasks with a pending due-date timer")
+                .register(meterRegistry);
+        Gauge.builder("overdue.flagged", this, scheduler -> scheduler.count(true))
+                .description("Tasks currently flagged overdue")
+                .register(meterRegistry);
+        notifications = Counter.builder("overdue.notifications").register(meterRegistry);
+        ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        synchronized (this) {
+            loading = true;
+        }
+        try {
+            int[] loaded = {0};
+            int[] pastDue = {0};
+            long now = currentTick();
+            RowCallbackHandler handler = rs -> {
+                OverdueTask task = new OverdueTask(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getDate(4).toLocalDate());
+                synchronized (this) {
+                    if (touchedTasks.contains(task.getTaskId()) || touchedUsers.contains(task.getUserId())
+                            || timers.containsKey(task.getTaskId()) || overdue.containsKey(task.getTaskId())) {
+                        return;
+                    }
+                    if (deadlineTick(task) <= now) {
+                        flag(task);
+                        pastDue[0]++;
+                    } else {
+                        schedule(task);
+                    }
+                }
+                loaded[0]++;
+            };
+            for (int shard = 0; shard < shardTemplate.getShardCount(); shard++) {
+                shardTemplate.inShard(shard, true, () -> {
+                    jdbcTemplate.query("SELECT id, user_id, title, due_date FROM tasks WHERE status <> 'DONE'", handler);
+                    return null;
+                });
+            }
+            log.info("Scheduled due-date timers for {} open tasks, {} of them already overdue", loaded[0], pastDue[0]);
+            if (pastDue[0] > 0) {
+                snapshotCache.invalidate(ResponseSnapshotCache.Key.TASKS);
+            }
+        } finally {
+            synchronized (this) {
+                loading = false;
+                touchedTasks.clear();
+                touchedUsers.clear();
+            }
+        }
+    }
+
+    /** (Re)schedules the task after the current transaction commits; a {@code DONE} task is dropped. */
+    public void track(Task task) {
+        track(task.getId(), task.getUser().getId(), task.getTitle(), task.getDueDate(), task.getStatus());
+    }
+
+    public void track(Long taskId, Long userId, String title, LocalDate dueDate, TaskStatus status) {
+        OverdueTask entry = new OverdueTask(taskId, userId, title, dueDate);
+        boolean done = status == TaskStatus.DONE;
+        afterCommit(() -> {
+            synchronized (this) {
+                touch(entry.getTaskId());
+                drop(entry.getTaskId());
+                if (!done) {
+                    schedule(entry);
+                }
+            }
+        });
+    }
+
+    /** As {@link #track}, for a batch of new tasks applied together once the transaction commits. */
+    public void trackAll(Collection<TaskDTO> tasks) {
+        List<OverdueTask> pending = new ArrayList<>(tasks.size());
+        for (TaskDTO task : tasks) {
+            if (task.getStatus() != TaskStatus.DONE) {
+                pending.add(new OverdueTask(task.getId(), task.getUserId(), task.getTitle(), task.getDueDate()));
+            }
+        }
+        afterCommit(() -> {
+            synchronized (this) {
+                for (OverdueTask entry : pending) {
+                    touch(entry.getTaskId());
+                    drop(entry.getTaskId());
+                    schedule(entry);
+                }
+            }
+        });
+    }
+
+    public void untrack(long taskId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                touch(taskId);
+                drop(taskId);
+            }
+        });
+    }
+
+    public void untrackUser(long userId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                if (loading) {
+                    touchedUsers.add(userId);
+                }
+                // Rare enough that walking the pending timers beats keeping a per-user index of them
+                Iterator<HierarchicalTimingWheel.Timer<OverdueTask>> iterator = timers.values().iterator();
+                while (iterator.hasNext()) {
+                    HierarchicalTimingWheel.Timer<OverdueTask> timer = iterator.next();
+                    if (timer.getPayload().getUserId() == userId) {
+                        wheel.cancel(timer);
+                        iterator.remove();
+                    }
+                }
+                Set<Long> flagged = overdueByUser.remove(userId);
+                if (flagged != null) {
+                    overdue.keySet().removeAll(flagged);
+                }
+            }
+        });
+    }
+
+    /** Ids of the user's tasks flagged overdue, as of the last tick. */
+    public synchronized List<Long> overdueTaskIds(long userId) {
+        Set<Long> flagged = overdueByUser.get(userId);
+        return flagged != null ? new ArrayList<>(flagged) : List.of();
+    }
+
+    /** Whether a task with this due date and status is overdue right now. */
+    public boolean isOverdue(LocalDate dueDate, TaskStatus status) {
+        return status != TaskStatus.DONE && dueDate != null && dueDate.isBefore(LocalDate.now(zone));
+    }
+
+    private void tick() {
+        List<OverdueTask> due = new ArrayList<>();
+        try {
+            synchronized (this) {
+                wheel.advanceTo(currentTick(), task -> {
+                    timers.remove(task.getTaskId());
+                    flag(task);
+                    due.add(task);
+                });
+            }
+            if (due.isEmpty()) {
+                return;
+            }
+            // Task responses carry the overdue flag
+            snapshotCache.invalidate(ResponseSnapshotCache.Key.TASKS);
+            for (OverdueTask task : due) {
+                sink.taskOverdue(task);
+                notifications.increment();
+            }
+        } catch (RuntimeException e) {
+            // An exception would cancel the fixed-rate schedule
+            log.warn("Overdue tick failed", e);
+        }
+    }
+
+    private void schedule(OverdueTask task) {
+        timers.put(task.getTaskId(), wheel.schedule(deadlineTick(task), task));
+    }
+
+    private void flag(OverdueTask task) {
+        overdue.put(task.getTaskId(), task);
+        overdueByUser.computeIfAbsent(task.getUserId(), id -> new HashSet<>()).add(task.getTaskId());
+    }
+
+    // The first tick at or after the start of the day after the due date
+    private long deadlineTick(OverdueTask task) {
+        long deadline = task.getDueDate().plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return (deadline + tickMs - 1) / tickMs;
+    }
+
+    private void drop(long taskId) {
+        HierarchicalTimingWheel.Timer<OverdueTask> timer = timers.remove(taskId);
+        if (timer != null) {
+            wheel.cancel(timer);
+        }
+        OverdueTask flagged = overdue.remove(taskId);
+        if (flagged != null) {
+            Set<Long> userTasks = overdueByUser.get(flagged.getUserId());
+            userTasks.remove(taskId);
+            if (userTasks.isEmpty()) {
+                overdueByUser.remove(flagged.getUserId());
+            }
+        }
+    }
+
+    private void touch(long taskId) {
+        if (loading) {
+            touchedTasks.add(taskId);
+        }
+    }
+
+    private synchronized int count(boolean flagged) {
+        return flagged ? overdue.size() : wheel.size();
+    }
+
+    private long currentTick() {
+        return System.currentTimeMillis() / tickMs;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
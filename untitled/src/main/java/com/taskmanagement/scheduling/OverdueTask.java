@@ -0,0 +1,14 @@
+package com.taskmanagement.scheduling;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class OverdueTask {
+    private Long taskId;
+    private Long userId;
+    private String title;
+    private LocalDate dueDate;
+}
@@ -0,0 +1,181 @@
+package com.taskmanagement.scheduling;
+
+import com.taskmanagement.cache.ResponseSnapshotCache;
+import com.taskmanagement.datasource.ShardTemplate;
+import com.taskmanagement.search.TaskSearchIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves {@code DONE} tasks last updated {@code app.archive.afterDays} or more days ago from
+ * {@code tasks} to {@code archived_tasks} on each shard, so the live table - and every
+ * per-user read of it - stays about as large as the set of open and recently finished tasks.
+ * <p>
+ * Each chunk of {@code app.archive.chunkSize} rows is one transaction: the rows are locked in id
+ * order, copied with {@code INSERT ... SELECT} and deleted with the same predicate, so a task
+ * reopened meanwhile is neither copied nor deleted. Between chunks the archiver sleeps long
+ * enough to keep its share of database time at {@code app.archive.dutyCycle}, so a large backlog
+ * drains steadily without starving request traffic. Archived tasks leave the search index; no
+ * outbox event is recorded, since the task still exists. Enable the archiver on one instance only;
+ * {@code app.archive.enabled} is checked when it starts, so an AOT build still honours it.
+ */
+@Component
+public class TaskArchiver implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiver.class);
+
+    private static final String LOCK_CHUNK =
+            "SELECT id, user_id FROM tasks WHERE status = 'DONE' AND updated_at <= ? AND id > ? ORDER BY id LIMIT ? FOR UPDATE";
+    private static final String COPY_CHUNK =
+            "INSERT INTO archived_tasks (id, title, description, due_date, status, user_id, created_at, updated_at, archived_at) "
+                    + "SELECT id, title, description, due_date, status, user_id, created_at, updated_at, ? FROM tasks "
+                    + "WHERE id > ? AND id <= ? AND status = 'DONE' AND updated_at <= ?";
+    private static final String DELETE_CHUNK =
+            "DELETE FROM tasks WHERE id > ? AND id <= ? AND status = 'DONE' AND updated_at <= ?";
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskSearchIndex searchIndex;
+
+    @Autowired
+    private ResponseSnapshotCache snapshotCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.archive.afterDays:30}")
+    private int afterDays;
+
+    @Value("${app.archive.intervalMs:3600000}")
+    private long intervalMs;
+
+    @Value("${app.archive.chunkSize:1000}")
+    private int chunkSize;
+
+    @Value("${app.archive.dutyCycle:0.2}")
+    private double dutyCycle;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-archiver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Counter archived;
+
+    @PostConstruct
+    void initMetrics() {
+        archived = Counter.builder("tasks.archived")
+                .description("DONE tasks moved to archived_tasks")
+                .register(meterRegistry);
+    }
+
+    // A runner rather than @PostConstruct: runners are created even under lazy initialization
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::archiveDue, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /** Archives every {@code DONE} task last updated on or before {@code cutoff}; returns how many. */
+    public synchronized int archiveDoneBefore(LocalDate cutoff) {
+        int total = 0;
+        for (int shard = 0; shard < shardTemplate.getShardCount(); shard++) {
+            long cursor = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                long started = System.nanoTime();
+                long from = cursor;
+                long[] chunk = shardTemplate.inShard(shard, false, () -> archiveChunk(cutoff, from));
+                if (chunk == null) {
+                    break;
+                }
+                cursor = chunk[0];
+                total += (int) chunk[1];
+                archived.increment(chunk[1]);
+                throttle(System.nanoTime() - started);
+            }
+        }
+        if (total > 0) {
+            snapshotCache.invalidate(ResponseSnapshotCache.Key.TASKS);
+        }
+        return total;
+    }
+
+    private void archiveDue() {
+        try {
+            long started = System.nanoTime();
+            int count = archiveDoneBefore(LocalDate.now().minusDays(afterDays));
+            if (count > 0) {
+                log.info("Archived {} tasks in {} ms", count, (System.nanoTime() - started) / 1_000_000);
+            }
+        } catch (RuntimeException e) {
+            // An exception would cancel the schedule
+            log.warn("Task archiving failed", e);
+        }
+    }
+
+    // {last id, rows moved}, or null when nothing after `afterId` is due
+    private long[] archiveChunk(LocalDate cutoff, long afterId) {
+        Date cutoffDate = Date.valueOf(cutoff);
+        List<long[]> rows = jdbcTemplate.query(LOCK_CHUNK, (rs, rowNum) -> new long[] {rs.getLong(1), rs.getLong(2)},
+                cutoffDate, afterId, chunkSize);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        long lastId = rows.get(rows.size() - 1)[0];
+        int copied = jdbcTemplate.update(COPY_CHUNK, Date.valueOf(LocalDate.now()), afterId, lastId, cutoffDate);
+        int deleted = jdbcTemplate.update(DELETE_CHUNK, afterId, lastId, cutoffDate);
+        if (copied != rows.size() || deleted != rows.size()) {
+            // Rolls the chunk back rather than lose or duplicate a task
+            throw new IllegalStateException("Archived chunk changed underneath: locked " + rows.size()
+                    + ", copied " + copied + ", deleted " + deleted);
+        }
+        for (long[] row : rows) {
+            searchIndex.remove(row[1], row[0]);
+        }
+        return new long[] {lastId, rows.size()};
+    }
+
+    // Sleeps so that work / (work + sleep) stays at the duty cycle
+    private void throttle(long workNanos) {
+        if (dutyCycle >= 1) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep((long) (workNanos * (1 - dutyCycle) / dutyCycle));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
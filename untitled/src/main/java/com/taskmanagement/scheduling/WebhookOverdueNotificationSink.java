@@ -0,0 +1,64 @@
+package com.taskmanagement.scheduling;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * POSTs each overdue task as JSON to {@code app.overdue.webhookUrl}. Delivery is asynchronous
+ * and best effort: failures are logged, not retried.
+ */
+@Component
+@ConditionalOnProperty(name = "app.overdue.sink", havingValue = "webhook")
+public class WebhookOverdueNotificationSink implements OverdueNotificationSink {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookOverdueNotificationSink.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.overdue.webhookUrl}")
+    private URI webhookUrl;
+
+    @Value("${app.overdue.webhookTimeoutMs:5000}")
+    private long timeoutMs;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Override
+    public void taskOverdue(OverdueTask task) {
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(task);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize overdue notification for task {}", task.getTaskId(), e);
+            return;
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(webhookUrl)
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        log.warn("Overdue webhook for task {} failed: {}", task.getTaskId(), error.toString());
+                    } else if (response.statusCode() >= 300) {
+                        log.warn("Overdue webhook for task {} answered {}", task.getTaskId(), response.statusCode());
+                    }
+                });
+    }
+}
@@ -0,0 +1,234 @@
+package com.taskmanagement.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Posting list: task ids in ascending order with a term frequency each. Entries are kept in
+ * sealed blocks of about {@value #BLOCK_SIZE}, each stored as variable-length (LEB128) deltas in
+ * a byte array - ids in one user's list are close together, so most entries take two or three
+ * bytes instead of the twelve of a long/int pair - followed by an uncompressed tail.
+ * <p>
+ * Task ids grow, so new tasks land in the tail in amortised constant time, and the tail is sealed
+ * into a block once full. Any other update decodes, edits and re-encodes only the block holding
+ * the id, splitting it when it grows to twice the block size. Not thread-safe; the owning user
+ * index guards it.
+ */
+final class PostingList {
+
+    static final int BLOCK_SIZE = 128;
+
+    @FunctionalInterface
+    interface Visitor {
+        void visit(long taskId, int frequency);
+    }
+
+    // Ascending, non-overlapping; every tail id is greater than the last block's
+    private final List<Block> blocks = new ArrayList<>();
+    // Grown on demand: most terms of a user appear in a handful of tasks
+    private long[] tailIds = new long[2];
+    private int[] tailFrequencies = new int[2];
+    private int tailSize;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    int sizeInBytes() {
+        int bytes = tailSize * (Long.BYTES + Integer.BYTES);
+        for (Block block : blocks) {
+            bytes += block.data.length;
+        }
+        return bytes;
+    }
+
+    void forEach(Visitor visitor) {
+        for (Block block : blocks) {
+            block.forEach(visitor);
+        }
+        for (int i = 0; i < tailSize; i++) {
+            visitor.visit(tailIds[i], tailFrequencies[i]);
+        }
+    }
+
+    /** Adds {@code taskId}, or replaces its frequency if already present. */
+    void put(long taskId, int frequency) {
+        if (blocks.isEmpty() || taskId > blocks.get(blocks.size() - 1).lastId) {
+            putInTail(taskId, frequency);
+            return;
+        }
+        int blockIndex = blockFor(taskId);
+        Block block = blocks.get(blockIndex);
+        long[] ids = new long[block.count + 1];
+        int[] frequencies = new int[block.count + 1];
+        block.decode(ids, frequencies);
+
+        int index = Arrays.binarySearch(ids, 0, block.count, taskId);
+        if (index >= 0) {
+            frequencies[index] = frequency;
+            blocks.set(blockIndex, Block.encode(ids, frequencies, 0, block.count));
+            return;
+        }
+        int count = insert(ids, frequencies, block.count, -index - 1, taskId, frequency);
+        size++;
+        if (count < 2 * BLOCK_SIZE) {
+            blocks.set(blockIndex, Block.encode(ids, frequencies, 0, count));
+        } else {
+            int half = count / 2;
+            blocks.set(blockIndex, Block.encode(ids, frequencies, 0, half));
+            blocks.add(blockIndex + 1, Block.encode(ids, frequencies, half, count));
+        }
+    }
+
+    /** Removes {@code taskId}; returns whether it was present. */
+    boolean remove(long taskId) {
+        if (blocks.isEmpty() || taskId > blocks.get(blocks.size() - 1).lastId) {
+            int index = Arrays.binarySearch(tailIds, 0, tailSize, taskId);
+            if (index < 0) {
+                return false;
+            }
+            tailSize = delete(tailIds, tailFrequencies, tailSize, index);
+            size--;
+            return true;
+        }
+        int blockIndex = blockFor(taskId);
+        Block block = blocks.get(blockIndex);
+        if (taskId < block.firstId) {
+            return false;
+        }
+        long[] ids = new long[block.count];
+        int[] frequencies = new int[block.count];
+        block.decode(ids, frequencies);
+
+        int index = Arrays.binarySearch(ids, 0, block.count, taskId);
+        if (index < 0) {
+            return false;
+        }
+        int count = delete(ids, frequencies, block.count, index);
+        size--;
+        if (count == 0) {
+            blocks.remove(blockIndex);
+        } else {
+            blocks.set(blockIndex, Block.encode(ids, frequencies, 0, count));
+        }
+        return true;
+    }
+
+    private void putInTail(long taskId, int frequency) {
+        int index = tailSize == 0 || taskId > tailIds[tailSize - 1]
+                ? -tailSize - 1
+                : Arrays.binarySearch(tailIds, 0, tailSize, taskId);
+        if (index >= 0) {
+            tailFrequencies[index] = frequency;
+            return;
+        }
+        if (tailSize == tailIds.length) {
+            tailIds = Arrays.copyOf(tailIds, tailSize * 2);
+            tailFrequencies = Arrays.copyOf(tailFrequencies, tailSize * 2);
+        }
+        tailSize = insert(tailIds, tailFrequencies, tailSize, -index - 1, taskId, frequency);
+        size++;
+        if (tailSize == BLOCK_SIZE) {
+            blocks.add(Block.encode(tailIds, tailFrequencies, 0, tailSize));
+            tailSize = 0;
+        }
+    }
+
+    // The first block whose last id is at least taskId; the caller ensures there is one
+    private int blockFor(long taskId) {
+        int low = 0;
+        int high = blocks.size() - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (blocks.get(mid).lastId < taskId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int insert(long[] ids, int[] frequencies, int count, int at, long taskId, int frequency) {
+        System.arraycopy(ids, at, ids, at + 1, count - at);
+        System.arraycopy(frequencies, at, frequencies, at + 1, count - at);
+        ids[at] = taskId;
+        frequencies[at] = frequency;
+        return count + 1;
+    }
+
+    private static int delete(long[] ids, int[] frequencies, int count, int at) {
+        System.arraycopy(ids, at + 1, ids, at, count - at - 1);
+        System.arraycopy(frequencies, at + 1, frequencies, at, count - at - 1);
+        return count - 1;
+    }
+
+    private static final class Block {
+        private final byte[] data;
+        private final int count;
+        private final long firstId;
+        private final long lastId;
+
+        private Block(byte[] data, int count, long firstId, long lastId) {
+            this.data = data;
+            this.count = count;
+            this.firstId = firstId;
+            this.lastId = lastId;
+        }
+
+        static Block encode(long[] ids, int[] frequencies, int from, int to) {
+            // A long delta takes at most 10 bytes and an int at most 5
+            byte[] buffer = new byte[(to - from) * 15];
+            int length = 0;
+            long previous = 0;
+            for (int i = from; i < to; i++) {
+                length = writeVarLong(buffer, length, ids[i] - previous);
+                length = writeVarLong(buffer, length, frequencies[i]);
+                previous = ids[i];
+            }
+            return new Block(Arrays.copyOf(buffer, length), to - from, ids[from], ids[to - 1]);
+        }
+
+        void decode(long[] ids, int[] frequencies) {
+            int[] pos = {0};
+            long taskId = 0;
+            for (int i = 0; i < count; i++) {
+                taskId += readVarLong(data, pos);
+                ids[i] = taskId;
+                frequencies[i] = (int) readVarLong(data, pos);
+            }
+        }
+
+        void forEach(Visitor visitor) {
+            int[] pos = {0};
+            long taskId = 0;
+            for (int i = 0; i < count; i++) {
+                taskId += readVarLong(data, pos);
+                visitor.visit(taskId, (int) readVarLong(data, pos));
+            }
+        }
+    }
+
+    private static int writeVarLong(byte[] buffer, int pos, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[pos++] = (byte) value;
+        return pos;
+    }
+
+    private static long readVarLong(byte[] buffer, int[] pos) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer[pos[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,322 @@
+package com.taskmanagement.search;
+
+import com.taskmanagement.datasource.ShardTemplate;
+import com.taskmanagement.dto.TaskDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process inverted index over task titles and descriptions, partitioned by user so a search
+ * only ever touches the caller's own postings.
+ * <p>
+ * {@code TaskService} keeps it current: writes are applied after their shard transaction
+ * commits, so a rolled-back write never becomes searchable. The index is filled from every
+ * shard at startup. Results are ranked with BM25; title terms count twice.
+ */
+@Component
+public class TaskSearchIndex implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskSearchIndex.class);
+
+    private static final int TITLE_WEIGHT = 2;
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Long, UserIndex> users = new ConcurrentHashMap<>();
+
+    // While the startup load runs, ids written live are recorded so older rows read by the
+    // load cannot overwrite them
+    private final Set<Long> touchedTasks = ConcurrentHashMap.newKeySet();
+    private final Set<Long> touchedUsers = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+
+    private Timer searchTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("search.index.documents", users, map -> map.values().stream().mapToInt(UserIndex::documentCount).sum())
+                .description("Tasks held in the full-text index")
+                .register(meterRegistry);
+        Gauge.builder("search.index.postings.bytes", users, map -> map.values().stream().mapToLong(UserIndex::postingBytes).sum())
+                .description("Encoded size of all posting lists")
+                .register(meterRegistry);
+        searchTimer = Timer.builder("search.index.query")
+                .description("Time to score a full-text query against one user's postings")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        loading = true;
+        try {
+            long started = System.nanoTime();
+            int[] loaded = {0};
+            RowCallbackHandler handler = rs -> {
+                long taskId = rs.getLong(1);
+                long userId = rs.getLong(2);
+                UserIndex index = userIndex(userId);
+                // Checked under the index lock that live writes mark and apply under
+                synchronized (index) {
+                    if (touchedTasks.contains(taskId) || touchedUsers.contains(userId)) {
+                        return;
+                    }
+                    index.putIfAbsent(taskId, rs.getString(3), rs.getString(4));
+                }
+                loaded[0]++;
+            };
+            for (int shard = 0; shard < shardTemplate.getShardCount(); shard++) {
+                shardTemplate.inShard(shard, true, () -> {
+                    // In id order, so each posting is appended to its list's tail
+                    jdbcTemplate.query("SELECT id, user_id, title, description FROM tasks ORDER BY id", handler);
+                    return null;
+                });
+            }
+            log.info("Indexed {} tasks for full-text search in {} ms", loaded[0], (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            loading = false;
+            touchedTasks.clear();
+            touchedUsers.clear();
+        }
+    }
+
+    public void index(long userId, long taskId, String title, String description) {
+        afterCommit(() -> {
+            UserIndex index = userIndex(userId);
+            synchronized (index) {
+                if (loading) {
+                    touchedTasks.add(taskId);
+                }
+                index.put(taskId, title, description);
+            }
+        });
+    }
+
+    /** As {@link #index}, for a batch of one user's tasks applied under one lock once the transaction commits. */
+    public void indexAll(long userId, Collection<TaskDTO> tasks) {
+        List<TaskDTO> pending = List.copyOf(tasks);
+        afterCommit(() -> {
+            UserIndex index = userIndex(userId);
+            synchronized (index) {
+                for (TaskDTO task : pending) {
+                    if (loading) {
+                        touchedTasks.add(task.getId());
+                    }
+                    index.put(task.getId(), task.getTitle(), task.getDescription());
+                }
+            }
+        });
+    }
+
+    public void remove(long userId, long taskId) {
+        afterCommit(() -> {
+            UserIndex index = userIndex(userId);
+            synchronized (index) {
+                if (loading) {
+                    touchedTasks.add(taskId);
+                }
+                index.remove(taskId);
+            }
+        });
+    }
+
+    public void removeUser(long userId) {
+        afterCommit(() -> {
+            if (loading) {
+                touchedUsers.add(userId);
+            }
+            users.remove(userId);
+        });
+    }
+
+    /**
+     * Returns the ids of the user's best matching tasks, best first. Query terms are OR-ed;
+     * a task matching more of them, or matching them more often, ranks higher.
+     */
+    public List<Long> search(long userId, String query, int limit) {
+        UserIndex index = users.get(userId);
+        if (index == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<String> terms = new ArrayList<>(termFrequencies(query, null).keySet());
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return searchTimer.record(() -> index.search(terms, limit));
+    }
+
+    private UserIndex userIndex(long userId) {
+        return users.computeIfAbsent(userId, id -> new UserIndex());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /** Lower-cased alphanumeric terms of the title and description with their weighted counts. */
+    static Map<String, Integer> termFrequencies(String title, String description) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        addTerms(frequencies, title, TITLE_WEIGHT);
+        addTerms(frequencies, description, 1);
+        return frequencies;
+    }
+
+    private static void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean termChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (termChar && start < 0) {
+                start = i;
+            } else if (!termChar && start >= 0) {
+                if (i - start >= MIN_TERM_LENGTH) {
+                    String term = text.substring(start, Math.min(i, start + MAX_TERM_LENGTH)).toLowerCase(Locale.ROOT);
+                    frequencies.merge(term, weight, Integer::sum);
+                }
+                start = -1;
+            }
+        }
+    }
+
+    private static final class UserIndex {
+
+        private final Map<String, PostingList> postings = new HashMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private long totalLength;
+
+        synchronized void put(long taskId, String title, String description) {
+            remove(taskId);
+            Map<String, Integer> frequencies = termFrequencies(title, description);
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new PostingList()).put(taskId, entry.getValue());
+                length += entry.getValue();
+            }
+            documents.put(taskId, new Document(frequencies.keySet().toArray(new String[0]), length));
+            totalLength += length;
+        }
+
+        synchronized void putIfAbsent(long taskId, String title, String description) {
+            if (!documents.containsKey(taskId)) {
+                put(taskId, title, description);
+            }
+        }
+
+        synchronized void remove(long taskId) {
+            Document document = documents.remove(taskId);
+            if (document == null) {
+                return;
+            }
+            for (String term : document.terms) {
+                PostingList list = postings.get(term);
+                list.remove(taskId);
+                if (list.size() == 0) {
+                    postings.remove(term);
+                }
+            }
+            totalLength -= document.length;
+        }
+
+        synchronized int documentCount() {
+            return documents.size();
+        }
+
+        synchronized long postingBytes() {
+            long bytes = 0;
+            for (PostingList list : postings.values()) {
+                bytes += list.sizeInBytes();
+            }
+            return bytes;
+        }
+
+        synchronized List<Long> search(List<String> terms, int limit) {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return Collections.emptyList();
+            }
+            double averageLength = (double) totalLength / documentCount;
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - list.size() + 0.5) / (list.size() + 0.5));
+                list.forEach((taskId, frequency) -> {
+                    double norm = K1 * (1 - B + B * documents.get(taskId).length / averageLength);
+                    scores.merge(taskId, idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+                });
+            }
+
+            // Min-heap of the best `limit` hits; on equal scores the newer (higher id) task wins
+            PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(
+                    Map.Entry.<Long, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                best.offer(entry);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            Long[] ranked = new Long[best.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = best.poll().getKey();
+            }
+            return List.of(ranked);
+        }
+    }
+
+    private static final class Document {
+        private final String[] terms;
+        private final int length;
+
+        Document(String[] terms, int length) {
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+}
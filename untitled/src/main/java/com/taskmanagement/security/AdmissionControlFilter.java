@@ -0,0 +1,144 @@
+package com.taskmanagement.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanagement.exception.ErrorResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheds load with a fast 503 before requests reach the services, using one adaptive
+ * concurrency limit per route class: auth (BCrypt-bound), reads and writes.
+ * <p>
+ * When a front proxy stamps {@code X-Request-Start} ({@code t=<epoch micros>} or epoch millis),
+ * requests that already waited longer than their class's queue budget are rejected outright:
+ * the client has most likely given up, so doing the work would only deepen the backlog.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String REQUEST_START_HEADER = "X-Request-Start";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.admission.auth.initialLimit:16}")
+    private int authInitialLimit;
+
+    @Value("${app.admission.auth.maxLimit:64}")
+    private int authMaxLimit;
+
+    @Value("${app.admission.auth.maxQueueMs:1000}")
+    private long authMaxQueueMs;
+
+    @Value("${app.admission.read.initialLimit:100}")
+    private int readInitialLimit;
+
+    @Value("${app.admission.read.maxLimit:500}")
+    private int readMaxLimit;
+
+    @Value("${app.admission.read.maxQueueMs:2000}")
+    private long readMaxQueueMs;
+
+    @Value("${app.admission.write.initialLimit:50}")
+    private int writeInitialLimit;
+
+    @Value("${app.admission.write.maxLimit:200}")
+    private int writeMaxLimit;
+
+    @Value("${app.admission.write.maxQueueMs:2000}")
+    private long writeMaxQueueMs;
+
+    private AdaptiveConcurrencyLimit authLimit;
+    private AdaptiveConcurrencyLimit readLimit;
+    private AdaptiveConcurrencyLimit writeLimit;
+
+    @PostConstruct
+    void initLimits() {
+        authLimit = new AdaptiveConcurrencyLimit("auth", authInitialLimit, 1, authMaxLimit, meterRegistry);
+        readLimit = new AdaptiveConcurrencyLimit("read", readInitialLimit, 1, readMaxLimit, meterRegistry);
+        writeLimit = new AdaptiveConcurrencyLimit("write", writeInitialLimit, 1, writeMaxLimit, meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimit limit;
+        long maxQueueMs;
+        String uri = request.getRequestURI();
+        if (uri.startsWith("/api/auth/") || uri.startsWith("/api/users/register")) {
+            limit = authLimit;
+            maxQueueMs = authMaxQueueMs;
+        } else if ("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod())) {
+            limit = readLimit;
+            maxQueueMs = readMaxQueueMs;
+        } else {
+            limit = writeLimit;
+            maxQueueMs = writeMaxQueueMs;
+        }
+
+        long queuedMs = queueTimeMs(request.getHeader(REQUEST_START_HEADER));
+        if (queuedMs > maxQueueMs) {
+            limit.recordShed();
+            shed(request, response, "Request queued too long");
+            return;
+        }
+
+        if (!limit.tryAcquire()) {
+            shed(request, response, "Server is busy");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limit.release(System.nanoTime() - start);
+        }
+    }
+
+    private static long queueTimeMs(String requestStart) {
+        if (requestStart == null) {
+            return -1;
+        }
+        try {
+            String value = requestStart.startsWith("t=") ? requestStart.substring(2) : requestStart;
+            long stamp = Long.parseLong(value.trim());
+            long startMs = stamp > 100_000_000_000_000L ? TimeUnit.MICROSECONDS.toMillis(stamp) : stamp;
+            return System.currentTimeMillis() - startMs;
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private void shed(HttpServletRequest request, HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, message, request.getRequestURI());
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
@@ -1,12 +1,17 @@
 package com.taskmanagement.security;
 
+import com.taskmanagement.cache.UserPrincipalCache;
 import com.taskmanagement.entity.User;
 import com.taskmanagement.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import java.util.Collections;
+import java.util.List;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
@@ -14,19 +19,33 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    // Runs for every authenticated request, so lookups go through the cache
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
-
-        return new UserPrincipal(user.getId(), user.getEmail(), user.getPassword());
+        return userPrincipalCache.get(email, this::findByEmail);
     }
 
     public UserDetails loadUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
 
-        return new UserPrincipal(user.getId(), user.getEmail(), user.getPassword());
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getPassword(), authorities(user));
     }
-}
 
+    private UserPrincipal findByEmail(String email) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getPassword(), authorities(user));
+    }
+
+    // From the admin column, never from anything a client can set such as the (unverified) email
+    private List<GrantedAuthority> authorities(User user) {
+        return user.isAdmin()
+                ? List.of(new SimpleGrantedAuthority("ADMIN"))
+                : Collections.emptyList();
+    }
+}
@@ -0,0 +1,126 @@
+package com.taskmanagement.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bloom filter over 64-bit fingerprints whose entries age out.
+ * <p>
+ * Each entry goes into the generation whose window holds its expiry time. A generation is
+ * dropped as a whole once its window has passed, so bits are never cleared one by one. With
+ * {@value #GENERATIONS} generations, each window is a third of the longest lifetime, so every
+ * unexpired entry has a generation. Lookups probe at most {@value #GENERATIONS} generations and
+ * neither lock nor allocate.
+ */
+public class ExpiringBloomFilter {
+
+    private static final int GENERATIONS = 4;
+    private static final int HASHES = 7;
+
+    private final long windowMs;
+    private final long maxTtlMs;
+    private final int bitsPerGeneration;
+    private final AtomicReferenceArray<Generation> generations = new AtomicReferenceArray<>(GENERATIONS);
+
+    /**
+     * @param maxTtlMs longest time an entry stays live
+     * @param expectedEntriesPerWindow entries per window at which the false-positive rate is about 1%
+     */
+    public ExpiringBloomFilter(long maxTtlMs, int expectedEntriesPerWindow) {
+        this.maxTtlMs = maxTtlMs;
+        this.windowMs = Math.max(1, (maxTtlMs + GENERATIONS - 2) / (GENERATIONS - 1));
+        // ~9.6 bits per entry for 1% with 7 hashes, rounded up to a power of two
+        long bits = Math.max(64, (long) expectedEntriesPerWindow * 10);
+        this.bitsPerGeneration = (int) Math.min(1L << 30, Long.highestOneBit(bits - 1) << 1);
+    }
+
+    /** Adds the fingerprint until {@code expiresAtMillis}, which is capped at the longest lifetime. */
+    public void put(long fingerprint, long expiresAtMillis, long nowMillis) {
+        if (expiresAtMillis <= nowMillis) {
+            return;
+        }
+        long bucket = Math.min(expiresAtMillis, nowMillis + maxTtlMs) / windowMs;
+        int slot = (int) (bucket % GENERATIONS);
+        Generation generation;
+        while (true) {
+            generation = generations.get(slot);
+            if (generation != null && generation.bucket == bucket) {
+                break;
+            }
+            // A newer generation in the slot means this window has already passed
+            if (generation != null && generation.bucket > bucket) {
+                return;
+            }
+            Generation fresh = new Generation(bucket, bitsPerGeneration);
+            if (generations.compareAndSet(slot, generation, fresh)) {
+                generation = fresh;
+                break;
+            }
+        }
+        generation.add(fingerprint);
+    }
+
+    public boolean mightContain(long fingerprint, long nowMillis) {
+        long currentBucket = nowMillis / windowMs;
+        for (int i = 0; i < GENERATIONS; i++) {
+            Generation generation = generations.get(i);
+            if (generation != null && generation.bucket >= currentBucket && generation.mightContain(fingerprint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** FNV-1a over the characters, then a 64-bit finalizer; no allocation. */
+    public static long fingerprint(CharSequence value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    public static long fingerprint(long value) {
+        return mix(value * 0x9e3779b97f4a7c15L + 0x632be59bd9b4e019L);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static final class Generation {
+        private final long bucket;
+        private final AtomicLongArray words;
+        private final int mask;
+
+        private Generation(long bucket, int bits) {
+            this.bucket = bucket;
+            this.words = new AtomicLongArray(bits >>> 6);
+            this.mask = bits - 1;
+        }
+
+        // Double hashing: probe i is h1 + i * h2
+        private void add(long fingerprint) {
+            int h1 = (int) fingerprint;
+            int h2 = (int) (fingerprint >>> 32) | 1;
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (h1 + i * h2) & mask;
+                words.accumulateAndGet(bit >>> 6, 1L << bit, (word, set) -> word | set);
+            }
+        }
+
+        private boolean mightContain(long fingerprint) {
+            int h1 = (int) fingerprint;
+            int h2 = (int) (fingerprint >>> 32) | 1;
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (h1 + i * h2) & mask;
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.taskmanagement.security;
 
+import com.taskmanagement.tracing.RequestTrace;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,14 +24,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
 
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
+        long started = RequestTrace.start();
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String email = tokenProvider.getEmailFromToken(jwt);
+            // Verified by the rate limiter already, unless it is disabled
+            Claims claims = (Claims) request.getAttribute(JwtTokenProvider.CLAIMS_ATTRIBUTE);
+            if (claims == null && StringUtils.hasText(jwt)) {
+                claims = tokenProvider.parseClaims(jwt);
+            }
+            if (claims != null && !tokenDenylist.isRevoked(claims.getId(), JwtTokenProvider.getUserId(claims),
+                    claims.getIssuedAt().getTime())) {
+                String email = claims.getSubject();
 
                 org.springframework.security.core.userdetails.UserDetails userDetails =
                     customUserDetailsService.loadUserByUsername(email);
@@ -38,9 +50,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                RequestTrace.authenticated(authentication);
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
+        } finally {
+            RequestTrace.end(RequestTrace.Phase.AUTH, started);
         }
 
         filterChain.doFilter(request, response);
@@ -9,23 +9,33 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Component
 public class JwtTokenProvider {
 
+    /** Request attribute holding the {@link Claims} of a bearer token that was already verified. */
+    public static final String CLAIMS_ATTRIBUTE = JwtTokenProvider.class.getName() + ".claims";
+
     @Value("${app.jwtSecret:MyVerySecureSecretKeyForJWTTokenThatIsAtLeast32CharactersLongForHS256}")
     private String jwtSecret;
 
-    @Value("${app.jwtExpirationMs:86400000}")
+    @Value("${app.jwtExpirationMs:900000}")
     private long jwtExpirationMs;
 
     private Key getSigningKey() {
         return Keys.hmacShaKeyFor(jwtSecret.getBytes());
     }
 
-    public String generateToken(String email, Long userId) {
+    public long getExpirationMs() {
+        return jwtExpirationMs;
+    }
+
+    /** {@code sessionId} is the refresh token family the token was issued for. */
+    public String generateToken(String email, Long userId, String sessionId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
+        claims.put("sid", sessionId);
         return createToken(claims, email);
     }
 
@@ -36,6 +46,8 @@ public class JwtTokenProvider {
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
+                // Token id, so a single token can be revoked
+                .id(UUID.randomUUID().toString())
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .signWith((javax.crypto.SecretKey) getSigningKey())
@@ -48,7 +60,10 @@ public class JwtTokenProvider {
     }
 
     public Long getUserIdFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
+        return getUserId(getAllClaimsFromToken(token));
+    }
+
+    public static Long getUserId(Claims claims) {
         Object userId = claims.get("userId");
         if (userId instanceof Integer) {
             return ((Integer) userId).longValue();
@@ -68,6 +83,15 @@ public class JwtTokenProvider {
         }
     }
 
+    /** The verified claims, or {@code null} if the token is malformed, forged or expired. */
+    public Claims parseClaims(String token) {
+        try {
+            return getAllClaimsFromToken(token);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     private Claims getAllClaimsFromToken(String token) {
         return Jwts.parser()
                 .verifyWith((javax.crypto.SecretKey) getSigningKey())
@@ -0,0 +1,108 @@
+package com.taskmanagement.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A family of {@link TokenBucket}s sharing one rate, keyed by client (IP, credential, ...).
+ * The key map is bounded: buckets that have fully refilled are idle and are swept out either
+ * periodically or when the map grows past its limit, at most once a second while it stays full.
+ * Keys that do not fit share a single overflow bucket, so memory stays bounded without letting new
+ * clients through unchecked, and a flood of new keys does not rescan the map for each of them.
+ */
+final class KeyedRateLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    // While the map is full, new keys trigger a sweep at most this often and use the overflow bucket in between
+    private static final long FULL_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String name;
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final int maxKeys;
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflow;
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final AtomicLong lastSweepNanos;
+
+    private final Counter allowed;
+    private final Counter rejected;
+
+    KeyedRateLimiter(String name, int capacity, double refillPerSecond, int maxKeys, MeterRegistry meterRegistry) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Invalid rate limit for '" + name + "': capacity="
+                    + capacity + ", refillPerSecond=" + refillPerSecond);
+        }
+        this.name = name;
+        this.emissionIntervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+        this.burstNanos = emissionIntervalNanos * capacity;
+        this.maxKeys = maxKeys;
+
+        long now = System.nanoTime();
+        this.overflow = new TokenBucket(now);
+        this.lastSweepNanos = new AtomicLong(now);
+
+        this.allowed = Counter.builder("ratelimit.requests").tag("limit", name).tag("outcome", "allowed")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("ratelimit.requests").tag("limit", name).tag("outcome", "rejected")
+                .register(meterRegistry);
+        Gauge.builder("ratelimit.tracked.keys", buckets, ConcurrentHashMap::size).tag("limit", name)
+                .register(meterRegistry);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * @return 0 if the request may proceed, otherwise the nanoseconds until the key has a permit again
+     */
+    long tryAcquire(String key, long nowNanos) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = newBucket(key, nowNanos);
+        }
+        if (nowNanos - lastSweepNanos.get() > SWEEP_INTERVAL_NANOS) {
+            sweep(nowNanos);
+        }
+
+        long waitNanos = bucket.tryAcquire(nowNanos, emissionIntervalNanos, burstNanos);
+        if (waitNanos == 0) {
+            allowed.increment();
+        } else {
+            rejected.increment();
+        }
+        return waitNanos;
+    }
+
+    private TokenBucket newBucket(String key, long nowNanos) {
+        if (buckets.size() >= maxKeys) {
+            if (nowNanos - lastSweepNanos.get() > FULL_SWEEP_INTERVAL_NANOS) {
+                sweep(nowNanos);
+            }
+            if (buckets.size() >= maxKeys) {
+                return overflow;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(nowNanos));
+    }
+
+    private void sweep(long nowNanos) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.values().removeIf(bucket -> bucket.isIdle(nowNanos));
+            lastSweepNanos.set(nowNanos);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.taskmanagement.security;
+
+import com.taskmanagement.cache.InvalidationBus;
+import com.taskmanagement.datasource.ReadWriteRoutingDataSource;
+import com.taskmanagement.entity.RevokedToken;
+import com.taskmanagement.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revoked tokens, checked on every authenticated request.
+ * <p>
+ * The {@code revoked_tokens} table is the source of truth. An {@link ExpiringBloomFilter}
+ * in front of it answers "not revoked" for almost every token without touching the database
+ * or allocating; only a filter hit reads the table. Entries age out of the filter with the
+ * tokens they cover, and expired rows are deleted every {@code app.revocation.cleanupMs}.
+ * Revocations reach the other nodes' filters over the {@link InvalidationBus}; a node that
+ * missed a batch reloads the filter from the table.
+ */
+@Component
+public class TokenDenylist implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenDenylist.class);
+
+    private static final String TOPIC = "revocations";
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.jwtExpirationMs:900000}")
+    private long jwtExpirationMs;
+
+    @Value("${app.revocation.expectedPerWindow:100000}")
+    private int expectedPerWindow;
+
+    @Value("${app.revocation.cleanupMs:600000}")
+    private long cleanupMs;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "token-denylist");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ExpiringBloomFilter filter;
+    private Counter revokedHits;
+    private Counter falsePositives;
+
+    @PostConstruct
+    void init() {
+        filter = new ExpiringBloomFilter(jwtExpirationMs, expectedPerWindow);
+        revokedHits = Counter.builder("auth.denylist.lookups").tag("outcome", "revoked").register(meterRegistry);
+        falsePositives = Counter.builder("auth.denylist.lookups").tag("outcome", "false_positive")
+                .description("Bloom filter hits the table did not confirm")
+                .register(meterRegistry);
+        invalidationBus.subscribe(TOPIC, key -> {
+            if (key == null) {
+                maintenance.execute(this::load);
+            } else {
+                int separator = key.indexOf(':');
+                filter.put(Long.parseLong(key.substring(0, separator)), Long.parseLong(key.substring(separator + 1)),
+                        System.currentTimeMillis());
+            }
+        });
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        load();
+        maintenance.scheduleWithFixedDelay(this::deleteExpired, cleanupMs, cleanupMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        maintenance.shutdownNow();
+    }
+
+    /**
+     * Whether the token is revoked, either by its id or by a revocation of all the user's tokens
+     * at or after {@code issuedAtMillis}. Issue times have second precision, so a token issued in
+     * the same second as a user-wide revocation counts as revoked.
+     */
+    public boolean isRevoked(String jti, Long userId, long issuedAtMillis) {
+        long now = System.currentTimeMillis();
+        boolean tokenHit = jti != null && filter.mightContain(ExpiringBloomFilter.fingerprint(jti), now);
+        boolean userHit = userId != null && filter.mightContain(ExpiringBloomFilter.fingerprint(userId), now);
+        if (!tokenHit && !userHit) {
+            return false;
+        }
+
+        // A replica may not have the revocation yet
+        boolean revoked = ReadWriteRoutingDataSource.onPrimary(() ->
+                (tokenHit && revokedTokenRepository.existsByJti(jti))
+                        || (userHit && revokedTokenRepository.existsByUserIdAndRevokedAtGreaterThanEqual(
+                                userId, LocalDateTime.ofInstant(Instant.ofEpochMilli(issuedAtMillis), zone))));
+        (revoked ? revokedHits : falsePositives).increment();
+        return revoked;
+    }
+
+    /** Revokes one token until it expires; effective on this node once the transaction commits. */
+    public void revokeToken(String jti, long expiresAtMillis) {
+        LocalDateTime now = LocalDateTime.now(zone);
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(jti)
+                .revokedAt(now)
+                .expiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMillis), zone))
+                .build());
+        afterCommit(ExpiringBloomFilter.fingerprint(jti), expiresAtMillis);
+    }
+
+    /** Revokes every token issued to the user so far. */
+    public void revokeUser(Long userId) {
+        long expiresAtMillis = System.currentTimeMillis() + jwtExpirationMs;
+        revokedTokenRepository.save(RevokedToken.builder()
+                .userId(userId)
+                .revokedAt(LocalDateTime.now(zone))
+                .expiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMillis), zone))
+                .build());
+        afterCommit(ExpiringBloomFilter.fingerprint(userId), expiresAtMillis);
+    }
+
+    private void load() {
+        try {
+            long now = System.currentTimeMillis();
+            int[] loaded = {0};
+            ReadWriteRoutingDataSource.onPrimary(() -> revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now(zone)))
+                    .forEach(revoked -> {
+                        long fingerprint = revoked.getJti() != null
+                                ? ExpiringBloomFilter.fingerprint(revoked.getJti())
+                                : ExpiringBloomFilter.fingerprint(revoked.getUserId());
+                        filter.put(fingerprint, revoked.getExpiresAt().atZone(zone).toInstant().toEpochMilli(), now);
+                        loaded[0]++;
+                    });
+            log.info("Loaded {} token revocations", loaded[0]);
+        } catch (RuntimeException e) {
+            log.warn("Loading token revocations failed", e);
+        }
+    }
+
+    private void deleteExpired() {
+        try {
+            revokedTokenRepository.deleteExpired(LocalDateTime.now(zone));
+        } catch (RuntimeException e) {
+            // An exception would cancel the fixed-delay schedule
+            log.warn("Deleting expired token revocations failed", e);
+        }
+    }
+
+    private void afterCommit(long fingerprint, long expiresAtMillis) {
+        Runnable action = () -> {
+            filter.put(fingerprint, expiresAtMillis, System.currentTimeMillis());
+            invalidationBus.publish(TOPIC, fingerprint + ":" + expiresAtMillis);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -9,11 +9,17 @@ public class UserPrincipal implements UserDetails {
     private Long id;
     private String email;
     private String password;
+    private Collection<? extends GrantedAuthority> authorities;
 
     public UserPrincipal(Long id, String email, String password) {
+        this(id, email, password, Collections.emptyList());
+    }
+
+    public UserPrincipal(Long id, String email, String password, Collection<? extends GrantedAuthority> authorities) {
         this.id = id;
         this.email = email;
         this.password = password;
+        this.authorities = authorities;
     }
 
     public Long getId() {
@@ -32,7 +38,7 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.emptyList();
+        return authorities;
     }
 
     @Override
@@ -2,10 +2,14 @@ package com.taskmanagement.service;
 
 import com.taskmanagement.dto.AuthRequest;
 import com.taskmanagement.dto.AuthResponse;
+import com.taskmanagement.dto.RefreshRequest;
 import com.taskmanagement.entity.User;
+import com.taskmanagement.exception.ResourceNotFoundException;
 import com.taskmanagement.exception.UnauthorizedException;
 import com.taskmanagement.repository.UserRepository;
 import com.taskmanagement.security.JwtTokenProvider;
+import com.taskmanagement.security.TokenDenylist;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -22,6 +26,13 @@ public class AuthService {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    // Deliberately not @Transactional: the lookup releases its connection before the BCrypt check
     public AuthResponse login(AuthRequest request) {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new UnauthorizedException("Invalid email or password"));
@@ -30,8 +41,50 @@ public class AuthService {
             throw new UnauthorizedException("Invalid email or password");
         }
 
-        String token = tokenProvider.generateToken(user.getEmail(), user.getId());
-        return new AuthResponse(token, user.getId(), user.getEmail());
+        return issueTokens(user, refreshTokenService.issue(user.getId()));
+    }
+
+    // Clients refresh instead of logging in again, which keeps BCrypt off the common path
+    public AuthResponse refresh(RefreshRequest request) {
+        RefreshTokenService.IssuedToken refreshToken = refreshTokenService.rotate(request.getRefreshToken());
+        User user = userRepository.findById(refreshToken.getUserId())
+                .orElseThrow(() -> new UnauthorizedException("Invalid refresh token"));
+        return issueTokens(user, refreshToken);
+    }
+
+    public void logout(String token) {
+        Claims claims = tokenProvider.parseClaims(token);
+        if (claims == null || claims.getId() == null) {
+            throw new UnauthorizedException("Invalid token");
+        }
+        tokenDenylist.revokeToken(claims.getId(), claims.getExpiration().getTime());
+        String sessionId = claims.get("sid", String.class);
+        if (sessionId != null) {
+            refreshTokenService.revokeFamily(sessionId);
+        }
+    }
+
+    // The token's expiry is unknown here, so the entry is kept for the longest token lifetime
+    public void revokeToken(String jti) {
+        // Issued ids are UUIDs; anything longer cannot name one of our tokens
+        if (jti.length() > 64) {
+            throw new ResourceNotFoundException("No token with id: " + jti);
+        }
+        tokenDenylist.revokeToken(jti, System.currentTimeMillis() + tokenProvider.getExpirationMs());
+    }
+
+    public void revokeUserTokens(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+        tokenDenylist.revokeUser(userId);
+        refreshTokenService.revokeUser(userId);
+    }
+
+    private AuthResponse issueTokens(User user, RefreshTokenService.IssuedToken refreshToken) {
+        String token = tokenProvider.generateToken(user.getEmail(), user.getId(), refreshToken.getFamilyId());
+        return new AuthResponse(token, tokenProvider.getExpirationMs() / 1000, refreshToken.getToken(),
+                user.getId(), user.getEmail());
     }
 }
 
@@ -0,0 +1,58 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.dto.MultiGetResponse;
+import com.taskmanagement.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Resolves the ids of a multi-get with {@code IN} queries of up to {@code app.multiGet.chunkSize}
+ * ids each, so one request costs one round trip per chunk instead of one per id. At most
+ * {@code app.multiGet.maxIds} distinct ids are accepted per request. Hibernate pads the
+ * {@code IN} lists, so the number of distinct statements the database has to plan stays small.
+ */
+@Component
+public class MultiGetLoader {
+
+    @Value("${app.multiGet.maxIds:200}")
+    private int maxIds;
+
+    @Value("${app.multiGet.chunkSize:100}")
+    private int chunkSize;
+
+    /**
+     * Looks up {@code ids} through {@code query}, one chunk at a time. Items come back in the order
+     * their ids were first asked for; ids {@code query} did not return are reported as missing.
+     */
+    public <T> MultiGetResponse<T> load(List<Long> ids, Function<List<Long>, List<T>> query, Function<T, Long> idOf) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinct.size() > maxIds) {
+            throw new BadRequestException("At most " + maxIds + " ids per request, got " + distinct.size());
+        }
+
+        Map<Long, T> found = new HashMap<>(distinct.size() * 2);
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            for (T item : query.apply(distinct.subList(from, Math.min(distinct.size(), from + chunkSize)))) {
+                found.put(idOf.apply(item), item);
+            }
+        }
+
+        List<T> items = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinct) {
+            T item = found.get(id);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new MultiGetResponse<>(items, missingIds);
+    }
+}
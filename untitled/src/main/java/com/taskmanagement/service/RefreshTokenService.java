@@ -0,0 +1,152 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.entity.RefreshToken;
+import com.taskmanagement.exception.UnauthorizedException;
+import com.taskmanagement.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues and rotates refresh tokens. A token is 256 random bits, so a plain SHA-256 of it is
+ * safe to store and cheap to look up. Refreshing costs one lookup by hash plus an update and
+ * an insert, with no BCrypt.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.refreshTokenExpirationMs:2592000000}")
+    private long refreshTokenExpirationMs;
+
+    @Value("${app.refreshTokenCleanupMs:3600000}")
+    private long cleanupMs;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final ScheduledExecutorService cleanup = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "refresh-token-cleanup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Counter rotated;
+    private Counter reused;
+    private Counter rejected;
+
+    @PostConstruct
+    void init() {
+        rotated = Counter.builder("auth.refresh").tag("outcome", "rotated").register(meterRegistry);
+        reused = Counter.builder("auth.refresh").tag("outcome", "reused")
+                .description("Refreshes with an already used token; the token family is revoked")
+                .register(meterRegistry);
+        rejected = Counter.builder("auth.refresh").tag("outcome", "rejected").register(meterRegistry);
+        cleanup.scheduleWithFixedDelay(this::deleteExpired, cleanupMs, cleanupMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        cleanup.shutdownNow();
+    }
+
+    /** Starts a new token family (one per login) with its first token. */
+    public IssuedToken issue(Long userId) {
+        return issue(userId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for the next one in its family. A token that was already used
+     * revokes the family; the revocation commits even though the refresh is rejected.
+     */
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public IssuedToken rotate(String token) {
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(token)).orElse(null);
+        if (current == null || current.isRevoked() || current.getExpiresAt().isBefore(now)) {
+            rejected.increment();
+            throw new UnauthorizedException("Invalid refresh token");
+        }
+        if (current.getUsedAt() != null || refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            reused.increment();
+            log.warn("Refresh token reused; revoked token family of user {}", current.getUserId());
+            throw new UnauthorizedException("Invalid refresh token");
+        }
+        rotated.increment();
+        return issue(current.getUserId(), current.getFamilyId());
+    }
+
+    public void revokeFamily(String familyId) {
+        refreshTokenRepository.revokeFamily(familyId);
+    }
+
+    public void revokeUser(Long userId) {
+        refreshTokenRepository.revokeByUserId(userId);
+    }
+
+    private IssuedToken issue(Long userId, String familyId) {
+        byte[] secret = new byte[32];
+        random.nextBytes(secret);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(token))
+                .familyId(familyId)
+                .userId(userId)
+                .expiresAt(LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(refreshTokenExpirationMs)))
+                .build());
+        return new IssuedToken(token, familyId, userId);
+    }
+
+    private void deleteExpired() {
+        try {
+            refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            // An exception would cancel the fixed-delay schedule
+            log.warn("Deleting expired refresh tokens failed", e);
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class IssuedToken {
+        private String token;
+        private String familyId;
+        private Long userId;
+    }
+}
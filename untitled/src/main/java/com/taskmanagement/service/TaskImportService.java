@@ -0,0 +1,431 @@
+package com.taskmanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanagement.bulkimport.CsvTaskRowReader;
+import com.taskmanagement.bulkimport.InvalidRowException;
+import com.taskmanagement.bulkimport.NdjsonTaskRowReader;
+import com.taskmanagement.bulkimport.TaskRowReader;
+import com.taskmanagement.cache.ResponseSnapshotCache;
+import com.taskmanagement.datasource.ShardTemplate;
+import com.taskmanagement.dto.CreateTaskRequest;
+import com.taskmanagement.dto.ImportJobDTO;
+import com.taskmanagement.dto.TaskDTO;
+import com.taskmanagement.entity.OutboxEvent;
+import com.taskmanagement.entity.TaskStatus;
+import com.taskmanagement.exception.PayloadTooLargeException;
+import com.taskmanagement.exception.ResourceNotFoundException;
+import com.taskmanagement.exception.ServiceUnavailableException;
+import com.taskmanagement.outbox.Outbox;
+import com.taskmanagement.scheduling.OverdueScheduler;
+import com.taskmanagement.search.TaskSearchIndex;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk task import from CSV or NDJSON uploads.
+ * <p>
+ * The upload is streamed to a spool file, so the request finishes as soon as the body is
+ * received and holds no connection meanwhile; the import then runs as a job on a small bounded
+ * pool and is followed through {@link #getJob}. A job slot is reserved before anything is
+ * spooled: with every running and queued slot taken, new imports are rejected (503) without
+ * touching the disk, and an upload over {@code app.import.maxBytes} is cut off (413), so disk use
+ * stays bounded by the slots times that limit. The job reads the spool one row at a time, validates each row against
+ * the {@link CreateTaskRequest} constraints and inserts accepted rows in JDBC batches of
+ * {@code app.import.chunkSize}, one transaction per batch on the user's shard - memory stays
+ * bounded by one batch whatever the file size. Rejected rows are counted and the first
+ * {@value #MAX_REPORTED_ERRORS} reported. A batch that fails ends the job; earlier batches stay
+ * committed and {@code rowsImported} says how far it got.
+ */
+@Service
+public class TaskImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_RETAINED_JOBS = 1000;
+    private static final String INSERT_TASK =
+            "INSERT INTO tasks (title, description, due_date, status, user_id, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResponseSnapshotCache snapshotCache;
+
+    @Autowired
+    private TaskSearchIndex searchIndex;
+
+    @Autowired
+    private OverdueScheduler overdueScheduler;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Value("${app.import.chunkSize:1000}")
+    private int chunkSize;
+
+    @Value("${app.import.maxBytes:104857600}")
+    private long maxBytes;
+
+    private final ThreadPoolExecutor importExecutor;
+
+    // One permit per running or queued job, taken before the upload is spooled
+    private final Semaphore jobSlots;
+
+    // Insertion ordered so the oldest finished jobs are evicted first
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    public TaskImportService(@Value("${app.import.maxConcurrentJobs:2}") int maxConcurrentJobs,
+                             @Value("${app.import.maxQueuedJobs:8}") int maxQueuedJobs) {
+        this.importExecutor = new ThreadPoolExecutor(maxConcurrentJobs, maxConcurrentJobs, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueuedJobs), runnable -> {
+                    Thread thread = new Thread(runnable, "task-import");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.jobSlots = new Semaphore(maxConcurrentJobs + maxQueuedJobs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        importExecutor.shutdownNow();
+    }
+
+    /**
+     * Spools {@code body} to disk and queues the import; returns the queued job. {@code contentLength}
+     * is the declared body size, or -1 when unknown.
+     */
+    public ImportJobDTO startImport(Long userId, Format format, InputStream body, long contentLength)
+            throws IOException {
+        userService.getUserEntityById(userId); // Verify user exists
+        if (contentLength > maxBytes) {
+            throw tooLarge();
+        }
+        if (!jobSlots.tryAcquire()) {
+            throw new ServiceUnavailableException("Too many imports in progress, retry later");
+        }
+
+        Path spool = null;
+        Job job;
+        try {
+            spool = Files.createTempFile("task-import-", format == Format.CSV ? ".csv" : ".ndjson");
+            long size = spool(body, spool);
+            job = new Job(UUID.randomUUID().toString(), userId, format, size);
+            register(job);
+            Path spooled = spool;
+            importExecutor.execute(() -> run(job, spooled));
+        } catch (IOException | RuntimeException e) {
+            jobSlots.release();
+            if (spool != null) {
+                Files.deleteIfExists(spool);
+            }
+            if (e instanceof RejectedExecutionException) {
+                throw new ServiceUnavailableException("Too many imports in progress, retry later");
+            }
+            throw e;
+        }
+        return job.toDTO();
+    }
+
+    public ImportJobDTO getJob(String jobId, Long userId) {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        if (job == null || !job.userId.equals(userId)) {
+            throw new ResourceNotFoundException("Import job not found with id: " + jobId);
+        }
+        return job.toDTO();
+    }
+
+    // Copies the body, giving up as soon as it grows past maxBytes; returns the bytes written
+    private long spool(InputStream body, Path spool) throws IOException {
+        long size = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (OutputStream out = Files.newOutputStream(spool)) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                size += read;
+                if (size > maxBytes) {
+                    throw tooLarge();
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return size;
+    }
+
+    private PayloadTooLargeException tooLarge() {
+        return new PayloadTooLargeException("Imports are limited to " + maxBytes + " bytes");
+    }
+
+    private void register(Job job) {
+        synchronized (jobs) {
+            Iterator<Job> iterator = jobs.values().iterator();
+            while (jobs.size() >= MAX_RETAINED_JOBS && iterator.hasNext()) {
+                if (iterator.next().isFinished()) {
+                    iterator.remove();
+                }
+            }
+            jobs.put(job.id, job);
+        }
+    }
+
+    private void run(Job job, Path spool) {
+        job.status = ImportJobDTO.Status.RUNNING;
+        try (InputStream in = new CountingInputStream(Files.newInputStream(spool), job.processedBytes);
+             TaskRowReader reader = openReader(job.format, in)) {
+            List<CreateTaskRequest> chunk = new ArrayList<>(chunkSize);
+            while (true) {
+                CreateTaskRequest row;
+                try {
+                    row = reader.next();
+                } catch (InvalidRowException e) {
+                    job.rowsRead.incrementAndGet();
+                    job.reject(e.getLine(), e.getMessage());
+                    continue;
+                }
+                if (row == null) {
+                    break;
+                }
+                job.rowsRead.incrementAndGet();
+
+                Set<ConstraintViolation<CreateTaskRequest>> violations = validator.validate(row);
+                if (!violations.isEmpty()) {
+                    job.reject(reader.getLine(), violations.iterator().next().getMessage());
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    insertChunk(job.userId, chunk);
+                    job.rowsImported.addAndGet(chunk.size());
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                insertChunk(job.userId, chunk);
+                job.rowsImported.addAndGet(chunk.size());
+            }
+            job.finish(ImportJobDTO.Status.COMPLETED, null);
+        } catch (InvalidRowException e) {
+            job.finish(ImportJobDTO.Status.FAILED, e.getMessage());
+        } catch (Exception e) {
+            log.warn("Import job {} failed", job.id, e);
+            job.finish(ImportJobDTO.Status.FAILED, "Import failed after " + job.rowsImported.get() + " rows");
+        } finally {
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException e) {
+                log.warn("Could not delete import spool {}", spool, e);
+            }
+            jobSlots.release();
+        }
+    }
+
+    private TaskRowReader openReader(Format format, InputStream in) throws IOException, InvalidRowException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        return format == Format.CSV ? new CsvTaskRowReader(reader) : new NdjsonTaskRowReader(reader, objectMapper);
+    }
+
+    private void insertChunk(Long userId, List<CreateTaskRequest> rows) {
+        LocalDate today = LocalDate.now();
+        shardTemplate.inUserShard(userId, false, () -> {
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_TASK, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            CreateTaskRequest row = rows.get(i);
+                            ps.setString(1, row.getTitle());
+                            ps.setString(2, row.getDescription());
+                            ps.setDate(3, Date.valueOf(row.getDueDate()));
+                            ps.setString(4, statusOf(row).name());
+                            ps.setLong(5, userId);
+                            ps.setDate(6, Date.valueOf(today));
+                            ps.setDate(7, Date.valueOf(today));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return rows.size();
+                        }
+                    }, keys);
+
+            // The same side effects TaskService.createTask has, applied per batch. The index and the
+            // timing wheel are only updated once the batch commits, so a failed batch leaves neither
+            List<Map<String, Object>> generated = keys.getKeyList();
+            Map<Long, TaskDTO> created = new LinkedHashMap<>();
+            for (int i = 0; i < rows.size(); i++) {
+                CreateTaskRequest row = rows.get(i);
+                Long taskId = ((Number) generated.get(i).values().iterator().next()).longValue();
+                TaskStatus status = statusOf(row);
+                created.put(taskId, TaskDTO.builder()
+                        .id(taskId)
+                        .title(row.getTitle())
+                        .description(row.getDescription())
+                        .dueDate(row.getDueDate())
+                        .status(status)
+                        .userId(userId)
+                        .overdue(overdueScheduler.isOverdue(row.getDueDate(), status))
+                        .createdAt(today)
+                        .updatedAt(today)
+                        .build());
+            }
+            outbox.recordAll(OutboxEvent.AggregateType.TASK, OutboxEvent.EventType.CREATED, created);
+            searchIndex.indexAll(userId, created.values());
+            overdueScheduler.trackAll(created.values());
+            snapshotCache.invalidate(ResponseSnapshotCache.Key.TASKS);
+            return null;
+        });
+    }
+
+    private static TaskStatus statusOf(CreateTaskRequest row) {
+        return row.getStatus() != null ? row.getStatus() : TaskStatus.TODO;
+    }
+
+    private static final class Job {
+        private final String id;
+        private final Long userId;
+        private final Format format;
+        private final long totalBytes;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final AtomicLong processedBytes = new AtomicLong();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong rowsImported = new AtomicLong();
+        private final AtomicLong rowsRejected = new AtomicLong();
+        private final List<ImportJobDTO.RowError> errors = new ArrayList<>();
+        private volatile ImportJobDTO.Status status = ImportJobDTO.Status.QUEUED;
+        private volatile String message;
+        private volatile LocalDateTime finishedAt;
+
+        Job(String id, Long userId, Format format, long totalBytes) {
+            this.id = id;
+            this.userId = userId;
+            this.format = format;
+            this.totalBytes = totalBytes;
+        }
+
+        void reject(long line, String reason) {
+            rowsRejected.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new ImportJobDTO.RowError(line, reason));
+                }
+            }
+        }
+
+        void finish(ImportJobDTO.Status finalStatus, String finalMessage) {
+            message = finalMessage;
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        boolean isFinished() {
+            return status == ImportJobDTO.Status.COMPLETED || status == ImportJobDTO.Status.FAILED;
+        }
+
+        ImportJobDTO toDTO() {
+            List<ImportJobDTO.RowError> errorsCopy;
+            synchronized (errors) {
+                errorsCopy = new ArrayList<>(errors);
+            }
+            return ImportJobDTO.builder()
+                    .id(id)
+                    .status(status)
+                    .format(format.name())
+                    .totalBytes(totalBytes)
+                    .processedBytes(processedBytes.get())
+                    .rowsRead(rowsRead.get())
+                    .rowsImported(rowsImported.get())
+                    .rowsRejected(rowsRejected.get())
+                    .errors(errorsCopy)
+                    .message(message)
+                    .createdAt(createdAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
@@ -1,27 +1,79 @@
 package com.taskmanagement.service;
 
+import com.taskmanagement.cache.ResponseSnapshotCache;
+import com.taskmanagement.datasource.ShardTemplate;
 import com.taskmanagement.dto.CreateTaskRequest;
+import com.taskmanagement.dto.MultiGetResponse;
+import com.taskmanagement.dto.SparseField;
 import com.taskmanagement.dto.UpdateTaskRequest;
 import com.taskmanagement.dto.TaskDTO;
+import com.taskmanagement.dto.TaskField;
+import com.taskmanagement.entity.ArchivedTask;
+import com.taskmanagement.entity.OutboxEvent;
 import com.taskmanagement.entity.Task;
+import com.taskmanagement.entity.TaskStatus;
 import com.taskmanagement.entity.User;
 import com.taskmanagement.exception.ResourceNotFoundException;
 import com.taskmanagement.exception.UnauthorizedException;
+import com.taskmanagement.outbox.Outbox;
+import com.taskmanagement.repository.ArchivedTaskRepository;
 import com.taskmanagement.repository.TaskRepository;
+import com.taskmanagement.scheduling.OverdueScheduler;
+import com.taskmanagement.search.TaskSearchIndex;
+import com.taskmanagement.tracing.RequestTrace;
+import jakarta.persistence.Tuple;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongFunction;
 import java.util.stream.Collectors;
 
+/**
+ * Task work runs in transactions opened by {@link ShardTemplate} on the owning user's shard,
+ * so each method is one read-only or read-write transaction. DTO mapping only touches
+ * {@code task.getUser().getId()}, which Hibernate serves from the foreign key without
+ * initializing the lazy association.
+ */
 @Service
 public class TaskService {
 
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Autowired
+    private MultiGetLoader multiGetLoader;
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ResponseSnapshotCache snapshotCache;
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
+    @Autowired
+    private TaskSearchIndex searchIndex;
+
+    @Autowired
+    private OverdueScheduler overdueScheduler;
+
+    @Autowired
+    private Outbox outbox;
+
     public TaskDTO createTask(Long userId, CreateTaskRequest request) {
         User user = userService.getUserEntityById(userId);
 
@@ -33,61 +85,406 @@ public class TaskService {
                 .user(user)
                 .build();
 
-        Task savedTask = taskRepository.save(task);
-        return mapToDTO(savedTask);
+        return shardTemplate.inUserShard(userId, false, () -> {
+            Task savedTask = taskRepository.save(task);
+            snapshotCache.invalidate(ResponseSnapshotCache.Key.TASKS);
+            searchIndex.index(userId, savedTask.getId(), savedTask.getTitle(), savedTask.getDescription());
+            overdueScheduler.track(savedTask);
+            TaskDTO taskDTO = mapToDTO(savedTask);
+            outbox.record(OutboxEvent.AggregateType.TASK, taskDTO.getId(), OutboxEvent.EventType.CREATED, taskDTO);
+            return taskDTO;
+        });
     }
 
     public TaskDTO getTaskById(Long taskId, Long userId) {
-        Task task = taskRepository.findByIdAndUserId(taskId, userId)
+        return shardTemplate.inUserShard(userId, true, () -> {
+            Task task = taskRepository.findByIdAndUserId(taskId, userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
+            return mapToDTO(task);
+        });
+    }
+
+    /**
+     * The user's tasks with the given ids, in the order asked. The ownership check is part of the
+     * query, so another user's task is reported missing, exactly like an id that does not exist.
+     */
+    public MultiGetResponse<TaskDTO> getTasksByIds(Long userId, List<Long> ids, boolean includeArchived) {
+        return shardTemplate.inUserShard(userId, true, () -> multiGetLoader.load(ids, chunk -> {
+            List<TaskDTO> tasks = taskRepository.findByUserIdAndIdIn(userId, chunk)
+                    .stream()
+                    .map(this::mapToDTO)
+                    .collect(Collectors.toList());
+            if (includeArchived && tasks.size() < chunk.size()) {
+                archivedTaskRepository.findByUserIdAndIdIn(userId, chunk).forEach(task -> tasks.add(mapToDTO(task)));
+            }
+            return tasks;
+        }, TaskDTO::getId));
+    }
+
+    /** Looks the task up by id alone; the owner, and so the shard, is unknown, so every shard is asked. */
+    public TaskDTO getTaskById(Long taskId, boolean includeArchived) {
+        return getTaskById(taskId, includeArchived, null);
+    }
+
+    /** As {@link #getTaskById(Long, boolean)}, reading only the columns behind {@code fields} (null for all). */
+    public TaskDTO getTaskById(Long taskId, boolean includeArchived, Set<TaskField> fields) {
+        if (fields != null) {
+            List<String> attributes = SparseField.attributes(fields);
+            return shardTemplate.onAllShards(true, shard -> {
+                        List<Tuple> live = taskRepository.findSelected(attributes, taskId, null, null, null);
+                        if (!live.isEmpty() || !includeArchived) {
+                            return mapToDTOs(live, fields, false);
+                        }
+                        return mapToDTOs(taskRepository.findSelectedArchived(attributes, taskId, null, null, null),
+                                fields, true);
+                    })
+                    .stream()
+                    .flatMap(List::stream)
+                    .findFirst()
+                    .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
+        }
+        return shardTemplate.onAllShards(true, shard -> taskRepository.findById(taskId).map(this::mapToDTO)
+                        .or(() -> includeArchived
+                                ? archivedTaskRepository.findById(taskId).map(this::mapToDTO)
+                                : Optional.empty()))
+                .stream()
+                .flatMap(Optional::stream)
+                .findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
-        return mapToDTO(task);
     }
 
+    /** Updates the task; an archived task is moved back to {@code tasks} first, so it can be reopened. */
     public TaskDTO updateTask(Long taskId, Long userId, UpdateTaskRequest request) {
-        Task task = taskRepository.findByIdAndUserId(taskId, userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
+        return shardTemplate.inUserShard(userId, false, () -> {
+            Task task = taskRepository.findByIdAndUserId(taskId, userId)
+                    .or(() -> restoreArchived(taskId, userId))
+                    .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
 
-        task.setTitle(request.getTitle());
-        task.setDescription(request.getDescription());
-        task.setDueDate(request.getDueDate());
-        task.setStatus(request.getStatus());
+            task.setTitle(request.getTitle());
+            task.setDescription(request.getDescription());
+            task.setDueDate(request.getDueDate());
+            task.setStatus(request.getStatus());
 
-        Task updatedTask = taskRepository.save(task);
-        return mapToDTO(updatedTask);
+            // The task is managed, so no save/merge is needed; flushing runs @PreUpdate before mapping
+            taskRepository.flush();
+            snapshotCache.invalidate(ResponseSnapshotCache.Key.TASKS);
+            searchIndex.index(userId, task.getId(), task.getTitle(), task.getDescription());
+            overdueScheduler.track(task);
+            TaskDTO taskDTO = mapToDTO(task);
+            outbox.record(OutboxEvent.AggregateType.TASK, taskDTO.getId(), OutboxEvent.EventType.UPDATED, taskDTO);
+            return taskDTO;
+        });
     }
 
+    /** Deletes the task, from {@code archived_tasks} when the archiver has moved it there. */
     public void deleteTask(Long taskId, Long userId) {
-        Task task = taskRepository.findByIdAndUserId(taskId, userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
-        taskRepository.delete(task);
+        shardTemplate.inUserShard(userId, false, () -> {
+            Optional<Task> task = taskRepository.findByIdAndUserId(taskId, userId);
+            if (task.isPresent()) {
+                taskRepository.delete(task.get());
+            } else if (archivedTaskRepository.deleteByIdAndUserId(taskId, userId) == 0) {
+                throw new ResourceNotFoundException("Task not found with id: " + taskId);
+            }
+            snapshotCache.invalidate(ResponseSnapshotCache.Key.TASKS);
+            searchIndex.remove(userId, taskId);
+            overdueScheduler.untrack(taskId);
+            outbox.record(OutboxEvent.AggregateType.TASK, taskId, OutboxEvent.EventType.DELETED,
+                    Map.of("id", taskId, "userId", userId));
+            return null;
+        });
     }
 
     public List<TaskDTO> getAllTasks() {
-        return taskRepository.findAll()
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return getAllTasks(false);
+    }
+
+    public List<TaskDTO> getAllTasks(boolean includeArchived) {
+        return getAllTasks(includeArchived, null);
+    }
+
+    /** Every task; with {@code fields} (null for all) only the columns behind them are read and returned. */
+    public List<TaskDTO> getAllTasks(boolean includeArchived, Set<TaskField> fields) {
+        List<String> attributes = fields != null ? SparseField.attributes(fields) : null;
+        List<List<TaskDTO>> perShard = shardTemplate.onAllShards(true, shard -> {
+            List<TaskDTO> live = fields != null
+                    ? mapToDTOs(taskRepository.findSelected(attributes, null, null, null, null), fields, false)
+                    : taskRepository.findAllByOrderByIdAsc()
+                            .stream()
+                            .map(this::mapToDTO)
+                            .collect(Collectors.toList());
+            if (!includeArchived) {
+                return live;
+            }
+            List<TaskDTO> archived = fields != null
+                    ? mapToDTOs(taskRepository.findSelectedArchived(attributes, null, null, null, null), fields, true)
+                    : archivedTaskRepository.findAllByOrderByIdAsc()
+                            .stream()
+                            .map(this::mapToDTO)
+                            .collect(Collectors.toList());
+            return mergeById(List.of(live, archived), Integer.MAX_VALUE);
+        });
+        return mergeById(perShard, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Keyset page over every shard: each shard returns its first {@code limit} tasks after
+     * {@code afterId}, and the id-ordered merge keeps the first {@code limit} overall.
+     */
+    public List<TaskDTO> getTasksPage(Long afterId, int limit) {
+        return getTasksPage(afterId, limit, false);
+    }
+
+    /** As {@link #getTasksPage(Long, int)}; with archived tasks each shard merges its two tables first. */
+    public List<TaskDTO> getTasksPage(Long afterId, int limit, boolean includeArchived) {
+        return getTasksPage(afterId, limit, includeArchived, null);
+    }
+
+    /** As {@link #getTasksPage(Long, int, boolean)}, reading only the columns behind {@code fields} (null for all). */
+    public List<TaskDTO> getTasksPage(Long afterId, int limit, boolean includeArchived, Set<TaskField> fields) {
+        long cursor = afterId != null ? afterId : 0L;
+        List<String> attributes = fields != null ? SparseField.attributes(fields) : null;
+        List<List<TaskDTO>> perShard = shardTemplate.onAllShards(true, shard -> {
+            List<TaskDTO> live = fields != null
+                    ? mapToDTOs(taskRepository.findSelected(attributes, null, null, cursor, limit), fields, false)
+                    : taskRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(limit))
+                            .stream()
+                            .map(this::mapToDTO)
+                            .collect(Collectors.toList());
+            if (!includeArchived) {
+                return live;
+            }
+            List<TaskDTO> archived = fields != null
+                    ? mapToDTOs(taskRepository.findSelectedArchived(attributes, null, null, cursor, limit),
+                            fields, true)
+                    : archivedTaskRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(limit))
+                            .stream()
+                            .map(this::mapToDTO)
+                            .collect(Collectors.toList());
+            return mergeById(List.of(live, archived), limit);
+        });
+        return mergeById(perShard, limit);
     }
 
     public List<TaskDTO> getUserTasks(Long userId) {
+        return getUserTasks(userId, false);
+    }
+
+    /** The user's live tasks, followed by their archived ones in id order when {@code includeArchived}. */
+    public List<TaskDTO> getUserTasks(Long userId, boolean includeArchived) {
+        return getUserTasks(userId, includeArchived, null);
+    }
+
+    /** As {@link #getUserTasks(Long, boolean)}, reading only the columns behind {@code fields} (null for all). */
+    public List<TaskDTO> getUserTasks(Long userId, boolean includeArchived, Set<TaskField> fields) {
+        userService.getUserEntityById(userId); // Verify user exists
+        if (fields != null) {
+            List<String> attributes = SparseField.attributes(fields);
+            return shardTemplate.inUserShard(userId, true, () -> {
+                List<TaskDTO> tasks = mapToDTOs(
+                        taskRepository.findSelected(attributes, null, userId, null, null), fields, false);
+                if (includeArchived) {
+                    tasks.addAll(mapToDTOs(
+                            taskRepository.findSelectedArchived(attributes, null, userId, null, null), fields, true));
+                }
+                return tasks;
+            });
+        }
+        return shardTemplate.inUserShard(userId, true, () -> {
+            List<TaskDTO> tasks = taskRepository.findByUserId(userId)
+                    .stream()
+                    .map(this::mapToDTO)
+                    .collect(Collectors.toList());
+            if (includeArchived) {
+                archivedTaskRepository.findByUserIdOrderByIdAsc(userId).forEach(task -> tasks.add(mapToDTO(task)));
+            }
+            return tasks;
+        });
+    }
+
+    /**
+     * Streams every task in id order, {@code chunkSize} at a time, through the same keyset pages
+     * as {@link #getTasksPage}. See {@link #streamUserTasks} for how chunks are read and handed over.
+     */
+    public void streamAllTasks(int chunkSize, ChunkSink sink) throws IOException {
+        stream(chunkSize, afterId -> getTasksPage(afterId, chunkSize), sink);
+    }
+
+    /**
+     * Streams the user's tasks in id order, {@code chunkSize} at a time. Each chunk is read in its
+     * own short transaction and handed to {@code sink} after it ends, so no connection is held
+     * while a slow client reads, and the next chunk is only read once the sink has taken the last:
+     * memory stays bounded by one chunk however many tasks the user has.
+     */
+    public void streamUserTasks(Long userId, int chunkSize, ChunkSink sink) throws IOException {
+        stream(chunkSize, afterId -> shardTemplate.inUserShard(userId, true, () ->
+                taskRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, afterId, Limit.of(chunkSize))
+                        .stream()
+                        .map(this::mapToDTO)
+                        .collect(Collectors.toList())), sink);
+    }
+
+    /** Receives one chunk of a streamed listing; may block until the client has taken the previous one. */
+    @FunctionalInterface
+    public interface ChunkSink {
+        void accept(List<TaskDTO> chunk) throws IOException;
+    }
+
+    /**
+     * The user's tasks flagged overdue by {@link OverdueScheduler}, earliest due date first.
+     * Flags are re-checked against the shard, so a task finished since the last tick is left out.
+     */
+    public List<TaskDTO> getOverdueTasks(Long userId) {
         userService.getUserEntityById(userId); // Verify user exists
-        return taskRepository.findByUserId(userId)
+        List<Long> ids = overdueScheduler.overdueTaskIds(userId);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return shardTemplate.inUserShard(userId, true, () -> taskRepository.findAllById(ids)
                 .stream()
+                .filter(task -> task.getUser().getId().equals(userId))
+                .filter(task -> task.getStatus() != TaskStatus.DONE)
+                .sorted(Comparator.comparing(Task::getDueDate).thenComparing(Task::getId))
                 .map(this::mapToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Full-text search over the user's own tasks, best match first. The index only supplies
+     * ranked ids; the tasks themselves are read from the user's shard, so a hit the index
+     * still holds for a task removed behind its back is simply dropped.
+     */
+    public List<TaskDTO> searchTasks(Long userId, String query, int limit) {
+        List<Long> ids = searchIndex.search(userId, query, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return shardTemplate.inUserShard(userId, true, () -> {
+            Map<Long, Task> tasks = taskRepository.findAllById(ids)
+                    .stream()
+                    .filter(task -> task.getUser().getId().equals(userId))
+                    .collect(Collectors.toMap(Task::getId, Function.identity()));
+            return ids.stream()
+                    .map(tasks::get)
+                    .filter(Objects::nonNull)
+                    .map(this::mapToDTO)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    // Runs in the caller's shard transaction, so the copy and the delete commit together
+    private Optional<Task> restoreArchived(Long taskId, Long userId) {
+        if (archivedTaskRepository.copyToTasks(taskId, userId) == 0) {
+            return Optional.empty();
+        }
+        archivedTaskRepository.deleteByIdAndUserId(taskId, userId);
+        return taskRepository.findByIdAndUserId(taskId, userId);
+    }
+
+    private static void stream(int chunkSize, LongFunction<List<TaskDTO>> chunkAfter, ChunkSink sink) throws IOException {
+        long afterId = 0;
+        while (true) {
+            List<TaskDTO> chunk = chunkAfter.apply(afterId);
+            if (!chunk.isEmpty()) {
+                sink.accept(chunk);
+            }
+            if (chunk.size() < chunkSize) {
+                return;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+    }
+
+    private static List<TaskDTO> mergeById(List<List<TaskDTO>> sortedLists, int limit) {
+        if (sortedLists.size() == 1) {
+            List<TaskDTO> only = sortedLists.get(0);
+            return only.size() > limit ? new ArrayList<>(only.subList(0, limit)) : only;
+        }
+
+        int total = 0;
+        for (List<TaskDTO> list : sortedLists) {
+            total += list.size();
+        }
+        List<TaskDTO> merged = new ArrayList<>(Math.min(total, limit));
+        int[] positions = new int[sortedLists.size()];
+        while (merged.size() < limit) {
+            int next = -1;
+            for (int i = 0; i < sortedLists.size(); i++) {
+                List<TaskDTO> list = sortedLists.get(i);
+                if (positions[i] < list.size() && (next < 0
+                        || list.get(positions[i]).getId() < sortedLists.get(next).get(positions[next]).getId())) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                break;
+            }
+            merged.add(sortedLists.get(next).get(positions[next]++));
+        }
+        return merged;
     }
 
     private TaskDTO mapToDTO(Task task) {
-        return TaskDTO.builder()
+        long started = RequestTrace.start();
+        TaskDTO taskDTO = TaskDTO.builder()
                 .id(task.getId())
                 .title(task.getTitle())
                 .description(task.getDescription())
                 .dueDate(task.getDueDate())
                 .status(task.getStatus())
                 .userId(task.getUser().getId())
+                .overdue(overdueScheduler.isOverdue(task.getDueDate(), task.getStatus()))
                 .createdAt(task.getCreatedAt())
                 .updatedAt(task.getUpdatedAt())
                 .build();
+        RequestTrace.end(RequestTrace.Phase.MAPPING, started);
+        return taskDTO;
     }
-}
 
+    // Rows from findSelected: only the selected fields are set, and only they are serialized
+    private List<TaskDTO> mapToDTOs(List<Tuple> rows, Set<TaskField> fields, boolean archived) {
+        List<TaskDTO> tasks = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            long started = RequestTrace.start();
+            TaskDTO.TaskDTOBuilder task = TaskDTO.builder()
+                    .id(row.get("id", Long.class))
+                    .archived(archived)
+                    .fields(fields);
+            for (TaskField field : fields) {
+                switch (field) {
+                    case TITLE -> task.title(row.get("title", String.class));
+                    case DESCRIPTION -> task.description(row.get("description", String.class));
+                    case DUE_DATE -> task.dueDate(row.get("dueDate", LocalDate.class));
+                    case STATUS -> task.status(row.get("status", TaskStatus.class));
+                    case USER_ID -> task.userId(row.get("userId", Long.class));
+                    case OVERDUE -> task.overdue(!archived && overdueScheduler.isOverdue(
+                            row.get("dueDate", LocalDate.class), row.get("status", TaskStatus.class)));
+                    case CREATED_AT -> task.createdAt(row.get("createdAt", LocalDate.class));
+                    case UPDATED_AT -> task.updatedAt(row.get("updatedAt", LocalDate.class));
+                    default -> {
+                        // id and archived are always set
+                    }
+                }
+            }
+            tasks.add(task.build());
+            RequestTrace.end(RequestTrace.Phase.MAPPING, started);
+        }
+        return tasks;
+    }
+
+    private TaskDTO mapToDTO(ArchivedTask task) {
+        long started = RequestTrace.start();
+        TaskDTO taskDTO = TaskDTO.builder()
+                .id(task.getId())
+                .title(task.getTitle())
+                .description(task.getDescription())
+                .dueDate(task.getDueDate())
+                .status(task.getStatus())
+                .userId(task.getUserId())
+                .archived(true)
+                .createdAt(task.getCreatedAt())
+                .updatedAt(task.getUpdatedAt())
+                .build();
+        RequestTrace.end(RequestTrace.Phase.MAPPING, started);
+        return taskDTO;
+    }
+}
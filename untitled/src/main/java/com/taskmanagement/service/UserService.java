@@ -1,16 +1,37 @@
 package com.taskmanagement.service;
 
+import com.taskmanagement.cache.ResponseSnapshotCache;
+import com.taskmanagement.cache.UserPrincipalCache;
+import com.taskmanagement.datasource.ShardTaskCleaner;
+import com.taskmanagement.datasource.ShardTemplate;
 import com.taskmanagement.dto.CreateUserRequest;
+import com.taskmanagement.dto.MultiGetResponse;
+import com.taskmanagement.dto.SparseField;
 import com.taskmanagement.dto.UpdateUserRequest;
 import com.taskmanagement.dto.UserDTO;
+import com.taskmanagement.dto.UserField;
+import com.taskmanagement.entity.OutboxEvent;
 import com.taskmanagement.entity.User;
 import com.taskmanagement.exception.EmailAlreadyExistsException;
 import com.taskmanagement.exception.ResourceNotFoundException;
+import com.taskmanagement.outbox.Outbox;
+import com.taskmanagement.repository.ArchivedTaskRepository;
+import com.taskmanagement.repository.RefreshTokenRepository;
+import com.taskmanagement.repository.TaskRepository;
 import com.taskmanagement.repository.UserRepository;
+import com.taskmanagement.scheduling.OverdueScheduler;
+import com.taskmanagement.search.TaskSearchIndex;
+import com.taskmanagement.tracing.RequestTrace;
+import jakarta.persistence.Tuple;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,7 +43,44 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ResponseSnapshotCache snapshotCache;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
+    @Autowired
+    private ShardTaskCleaner shardTaskCleaner;
+
+    @Autowired
+    private TaskSearchIndex searchIndex;
+
+    @Autowired
+    private OverdueScheduler overdueScheduler;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private MultiGetLoader multiGetLoader;
+
+    @Transactional
     public UserDTO createUser(CreateUserRequest request) {
+        // Hash before the first query: connections are fetched lazily, so none is held during BCrypt
+        String encodedPassword = passwordEncoder.encode(request.getPassword());
+
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
             throw new EmailAlreadyExistsException("Email already exists: " + request.getEmail());
         }
@@ -31,20 +89,47 @@ public class UserService {
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(encodedPassword)
                 .dateOfBirth(request.getDateOfBirth())
                 .build();
 
         User savedUser = userRepository.save(user);
-        return mapToDTO(savedUser);
+        snapshotCache.invalidate(ResponseSnapshotCache.Key.USERS);
+        userPrincipalCache.evict(savedUser.getId(), savedUser.getEmail());
+        UserDTO userDTO = mapToDTO(savedUser);
+        outbox.record(OutboxEvent.AggregateType.USER, userDTO.getId(), OutboxEvent.EventType.CREATED, userDTO);
+        return userDTO;
     }
 
+    @Transactional(readOnly = true)
     public UserDTO getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         return mapToDTO(user);
     }
 
+    /** The users with the given ids, in the order asked; ids without a user are reported missing. */
+    @Transactional(readOnly = true)
+    public MultiGetResponse<UserDTO> getUsersByIds(List<Long> ids) {
+        return multiGetLoader.load(ids, chunk -> userRepository.findByIdIn(chunk)
+                .stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList()), UserDTO::getId);
+    }
+
+    /** As {@link #getUserById(Long)}, reading only the columns behind {@code fields} (null for all). */
+    @Transactional(readOnly = true)
+    public UserDTO getUserById(Long id, Set<UserField> fields) {
+        if (fields == null) {
+            return getUserById(id);
+        }
+        return mapToDTOs(userRepository.findSelected(SparseField.attributes(fields), id), fields)
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+    }
+
+    @Transactional
     public UserDTO updateUser(Long id, UpdateUserRequest request) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
@@ -55,21 +140,47 @@ public class UserService {
             throw new EmailAlreadyExistsException("Email already exists: " + request.getEmail());
         }
 
+        String previousEmail = user.getEmail();
         user.setFirstName(request.getFirstName());
         user.setLastName(request.getLastName());
         user.setEmail(request.getEmail());
         user.setDateOfBirth(request.getDateOfBirth());
 
-        User updatedUser = userRepository.save(user);
-        return mapToDTO(updatedUser);
+        // The user is managed, so no save/merge is needed; flushing runs @PreUpdate before mapping
+        userRepository.flush();
+        snapshotCache.invalidate(ResponseSnapshotCache.Key.USERS);
+        userPrincipalCache.evict(id, previousEmail);
+        UserDTO userDTO = mapToDTO(user);
+        outbox.record(OutboxEvent.AggregateType.USER, userDTO.getId(), OutboxEvent.EventType.UPDATED, userDTO);
+        return userDTO;
     }
 
+    @Transactional
     public void deleteUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        // Bulk-delete the tasks up front so the orphanRemoval cascade does not load and remove them
+        // one by one. Tasks on another shard are deleted only once the user delete has committed.
+        int shard = shardTemplate.shardFor(id);
+        if (shard == 0) {
+            archivedTaskRepository.deleteByUserId(id);
+            taskRepository.deleteByUserId(id);
+        } else {
+            shardTaskCleaner.deleteTasksAfterCommit(id, shard);
+        }
         userRepository.delete(user);
+        refreshTokenRepository.deleteByUserId(id);
+        // The task snapshot includes the deleted user's tasks
+        snapshotCache.invalidate(ResponseSnapshotCache.Key.USERS);
+        snapshotCache.invalidate(ResponseSnapshotCache.Key.TASKS);
+        userPrincipalCache.evict(id, user.getEmail());
+        searchIndex.removeUser(id);
+        overdueScheduler.untrackUser(id);
+        // Consumers treat a deleted user's tasks as deleted too; they get no events of their own
+        outbox.record(OutboxEvent.AggregateType.USER, id, OutboxEvent.EventType.DELETED, Map.of("id", id));
     }
 
+    @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
         return userRepository.findAll()
                 .stream()
@@ -77,6 +188,16 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
+    /** As {@link #getAllUsers()}, in id order, reading only the columns behind {@code fields} (null for all). */
+    @Transactional(readOnly = true)
+    public List<UserDTO> getAllUsers(Set<UserField> fields) {
+        if (fields == null) {
+            return getAllUsers();
+        }
+        return mapToDTOs(userRepository.findSelected(SparseField.attributes(fields), null), fields);
+    }
+
+    @Transactional(readOnly = true)
     public List<UserDTO> searchUsersByName(String name) {
         return userRepository.searchByName(name)
                 .stream()
@@ -84,13 +205,42 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public User getUserEntityById(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
     }
 
+    // Rows from findSelected: only the selected fields are set, and only they are serialized
+    private List<UserDTO> mapToDTOs(List<Tuple> rows, Set<UserField> fields) {
+        List<UserDTO> users = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            long started = RequestTrace.start();
+            UserDTO.UserDTOBuilder user = UserDTO.builder()
+                    .id(row.get("id", Long.class))
+                    .fields(fields);
+            for (UserField field : fields) {
+                switch (field) {
+                    case FIRST_NAME -> user.firstName(row.get("firstName", String.class));
+                    case LAST_NAME -> user.lastName(row.get("lastName", String.class));
+                    case EMAIL -> user.email(row.get("email", String.class));
+                    case DATE_OF_BIRTH -> user.dateOfBirth(row.get("dateOfBirth", LocalDate.class));
+                    case CREATED_AT -> user.createdAt(row.get("createdAt", LocalDate.class));
+                    case UPDATED_AT -> user.updatedAt(row.get("updatedAt", LocalDate.class));
+                    default -> {
+                        // id is always set
+                    }
+                }
+            }
+            users.add(user.build());
+            RequestTrace.end(RequestTrace.Phase.MAPPING, started);
+        }
+        return users;
+    }
+
     private UserDTO mapToDTO(User user) {
-        return UserDTO.builder()
+        long started = RequestTrace.start();
+        UserDTO userDTO = UserDTO.builder()
                 .id(user.getId())
                 .firstName(user.getFirstName())
                 .lastName(user.getLastName())
@@ -99,6 +249,8 @@ public class UserService {
                 .createdAt(user.getCreatedAt())
                 .updatedAt(user.getUpdatedAt())
                 .build();
+        RequestTrace.end(RequestTrace.Phase.MAPPING, started);
+        return userDTO;
     }
 }
 
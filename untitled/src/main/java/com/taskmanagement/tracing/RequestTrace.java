@@ -0,0 +1,169 @@
+package com.taskmanagement.tracing;
+
+import org.springframework.security.core.Authentication;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Time spent per {@link Phase} by one traced request, collected through a thread-local so the
+ * instrumented code needs no wiring: {@code long started = RequestTrace.start(); ...;
+ * RequestTrace.end(Phase.DB, started);}. On a thread without a trace, {@code start()} is a
+ * thread-local read and {@code end()} returns at once, so the calls can stay in hot paths
+ * such as per-row DTO mapping. Phases may overlap (a user lookup during authentication is also
+ * database time); totals for a phase are summed, including over parallel shard queries.
+ */
+public final class RequestTrace {
+
+    public enum Phase {
+        /** JWT verification, the denylist check and the principal lookup. */
+        AUTH("auth"),
+        /** JDBC statement and batch execution. */
+        DB("db"),
+        /** Entity to DTO mapping. */
+        MAPPING("map"),
+        /** Writing the response body with Jackson, from the start of the write to the end of the request. */
+        SERIALIZATION("ser");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long startNanos = System.nanoTime();
+    // Nanoseconds, then calls, per phase; updated from shard scatter threads too
+    private final AtomicLongArray totals = new AtomicLongArray(PHASES.length * 2);
+    private volatile long serializationStartNanos;
+    private volatile Authentication authentication;
+
+    RequestTrace() {
+    }
+
+    /** The trace of the request on this thread, or null when it is not traced. */
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    static void begin(RequestTrace trace) {
+        CURRENT.set(trace);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /** A start time for {@link #end}, or 0 when the request on this thread is not traced. */
+    public static long start() {
+        return CURRENT.get() == null ? 0 : System.nanoTime();
+    }
+
+    /** Adds the time since {@code startNanos} (from {@link #start}) to {@code phase}. */
+    public static void end(Phase phase, long startNanos) {
+        if (startNanos == 0) {
+            return;
+        }
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.add(phase, System.nanoTime() - startNanos);
+        }
+    }
+
+    /** Records who the traced request on this thread authenticated as; it decides who sees the timings. */
+    public static void authenticated(Authentication authentication) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.authentication = authentication;
+        }
+    }
+
+    /** Runs {@code work} on another thread under {@code trace}, which may be null. */
+    public static <T> T runIn(RequestTrace trace, Supplier<T> work) {
+        if (trace == null) {
+            return work.get();
+        }
+        RequestTrace previous = CURRENT.get();
+        CURRENT.set(trace);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public void add(Phase phase, long nanos) {
+        totals.addAndGet(phase.ordinal() * 2, nanos);
+        totals.incrementAndGet(phase.ordinal() * 2 + 1);
+    }
+
+    /** Marks the start of the response body write; serialization runs until the request ends. */
+    public void serializationStarted() {
+        if (serializationStartNanos == 0) {
+            serializationStartNanos = System.nanoTime();
+        }
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /** The caller's authentication, or null for an anonymous request. */
+    public Authentication getAuthentication() {
+        return authentication;
+    }
+
+    /** Nanoseconds spent in {@code phase} up to {@code now}. */
+    public long nanos(Phase phase, long now) {
+        if (phase == Phase.SERIALIZATION && serializationStartNanos != 0) {
+            return now - serializationStartNanos;
+        }
+        return totals.get(phase.ordinal() * 2);
+    }
+
+    /** Timed calls in {@code phase}, e.g. the number of statements for {@link Phase#DB}. */
+    public long count(Phase phase) {
+        if (phase == Phase.SERIALIZATION) {
+            return serializationStartNanos == 0 ? 0 : 1;
+        }
+        return totals.get(phase.ordinal() * 2 + 1);
+    }
+
+    /** The {@code Server-Timing} header value as of {@code now}; durations in milliseconds. */
+    public String serverTiming(long now) {
+        StringBuilder header = new StringBuilder(96);
+        for (Phase phase : PHASES) {
+            if (count(phase) == 0) {
+                continue;
+            }
+            appendMillis(header.append(phase.getMetricName()).append(";dur="), nanos(phase, now));
+            if (phase == Phase.DB) {
+                long statements = count(phase);
+                header.append(";desc=\"").append(statements).append(statements == 1 ? " statement\"" : " statements\"");
+            }
+            header.append(", ");
+        }
+        return appendMillis(header.append("total;dur="), now - startNanos).toString();
+    }
+
+    // Milliseconds with microsecond precision, without going through String.format
+    static StringBuilder appendMillis(StringBuilder out, long nanos) {
+        long micros = Math.max(0, nanos) / 1_000;
+        long fraction = micros % 1_000;
+        out.append(micros / 1_000).append('.');
+        if (fraction < 100) {
+            out.append(fraction < 10 ? "00" : "0");
+        }
+        return out.append(fraction);
+    }
+}
@@ -0,0 +1,148 @@
+package com.taskmanagement.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Traces a sample ({@code app.tracing.sampleRate}, 1% by default) of requests through the
+ * {@link RequestTrace} phases and keeps the slow ones in the {@link SlowTraceBuffer} for
+ * {@code GET /api/admin/traces/slow}. Every other request is only timed as a whole, which costs
+ * two clock reads, so a slow one is still buffered, without a phase breakdown. Runs first, ahead
+ * of the security filter chain, so authentication is inside the trace.
+ * <p>
+ * The timings and statement counts describe the server's internals, so the {@code Server-Timing}
+ * header only goes to the callers {@code app.tracing.serverTimingHeader} allows: by default
+ * those with the ADMIN authority.
+ * <p>
+ * The header is set just before the response commits. A body larger than the response buffer
+ * commits part-way through serialization, so for those the header's {@code ser} and
+ * {@code total} stop at the first flush; the buffered trace has the full durations. Streamed
+ * (async) responses are traced until the request thread hands them off.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    /** Who is sent the {@code Server-Timing} header of a traced request. */
+    public enum HeaderAudience {
+        NONE, ADMIN, ALL
+    }
+
+    private static final String ADMIN_AUTHORITY = "ADMIN";
+
+    @Autowired
+    private SlowTraceBuffer slowTraces;
+
+    @Value("${app.tracing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.tracing.sampleRate:0.01}")
+    private double sampleRate;
+
+    @Value("${app.tracing.serverTimingHeader:ADMIN}")
+    private HeaderAudience headerAudience;
+
+    @Value("${app.tracing.slowMs:500}")
+    private long slowMs;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            long started = System.nanoTime();
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                long now = System.nanoTime();
+                if (now - started >= TimeUnit.MILLISECONDS.toNanos(slowMs)) {
+                    slowTraces.record(new SlowTraceBuffer.SlowTrace(Instant.now(), request.getMethod(),
+                            request.getRequestURI(), response.getStatus(), millis(now - started), Map.of(), -1, false));
+                }
+            }
+            return;
+        }
+
+        RequestTrace trace = new RequestTrace();
+        RequestTrace.begin(trace);
+        try {
+            filterChain.doFilter(request, headerAudience == HeaderAudience.NONE
+                    ? response
+                    : new ServerTimingResponse(response, trace));
+        } finally {
+            RequestTrace.clear();
+            long now = System.nanoTime();
+            if (!response.isCommitted() && mayShow(trace)) {
+                response.setHeader(SERVER_TIMING_HEADER, trace.serverTiming(now));
+            }
+            if (now - trace.getStartNanos() >= TimeUnit.MILLISECONDS.toNanos(slowMs)) {
+                slowTraces.record(toSlowTrace(request, response, trace, now));
+            }
+        }
+    }
+
+    private static SlowTraceBuffer.SlowTrace toSlowTrace(HttpServletRequest request, HttpServletResponse response,
+                                                         RequestTrace trace, long now) {
+        Map<String, Double> phases = new LinkedHashMap<>();
+        for (RequestTrace.Phase phase : RequestTrace.Phase.values()) {
+            if (trace.count(phase) > 0) {
+                phases.put(phase.getMetricName(), millis(trace.nanos(phase, now)));
+            }
+        }
+        return new SlowTraceBuffer.SlowTrace(Instant.now(), request.getMethod(), request.getRequestURI(),
+                response.getStatus(), millis(now - trace.getStartNanos()), phases,
+                trace.count(RequestTrace.Phase.DB), true);
+    }
+
+    private boolean mayShow(RequestTrace trace) {
+        if (headerAudience != HeaderAudience.ADMIN) {
+            return headerAudience == HeaderAudience.ALL;
+        }
+        Authentication authentication = trace.getAuthentication();
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> ADMIN_AUTHORITY.equals(authority.getAuthority()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000L / 1_000.0;
+    }
+
+    /** Sets the header with the durations so far when the response is about to commit. */
+    private final class ServerTimingResponse extends OnCommittedResponseWrapper {
+        private final RequestTrace trace;
+
+        private ServerTimingResponse(HttpServletResponse response, RequestTrace trace) {
+            super(response);
+            this.trace = trace;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            if (mayShow(trace)) {
+                setHeader(SERVER_TIMING_HEADER, trace.serverTiming(System.nanoTime()));
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.taskmanagement.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The last {@code app.tracing.slowBufferSize} requests that took {@code app.tracing.slowMs}
+ * or longer. Writers claim a slot with one atomic increment and overwrite the oldest trace, so
+ * recording never blocks a request; a reader may miss a trace that is being replaced meanwhile.
+ */
+@Component
+public class SlowTraceBuffer {
+
+    private final AtomicReferenceArray<SlowTrace> slots;
+    private final AtomicLong next = new AtomicLong();
+
+    public SlowTraceBuffer(@Value("${app.tracing.slowBufferSize:256}") int size) {
+        this.slots = new AtomicReferenceArray<>(Math.max(1, size));
+    }
+
+    public void record(SlowTrace trace) {
+        slots.set((int) (next.getAndIncrement() % slots.length()), trace);
+    }
+
+    /** The buffered traces, newest first. */
+    public List<SlowTrace> snapshot() {
+        long last = next.get();
+        int size = (int) Math.min(last, slots.length());
+        List<SlowTrace> traces = new ArrayList<>(size);
+        for (long i = last - 1; i >= last - size; i--) {
+            SlowTrace trace = slots.get((int) (i % slots.length()));
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        return traces;
+    }
+
+    /**
+     * One slow request: durations in milliseconds per phase, and the number of statements. Only
+     * {@code sampled} requests were traced; the others have no phases and {@code statements} is -1.
+     */
+    public record SlowTrace(Instant at, String method, String path, int status, double totalMs,
+                            Map<String, Double> phasesMs, long statements, boolean sampled) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.taskmanagement.tracing;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds JDBC statement and batch execution time to the {@link RequestTrace.Phase#DB} phase of
+ * the current request. Hibernate creates one per session ({@code hibernate.session.events.auto}),
+ * and a session is used by one thread at a time, so the start time needs no synchronization.
+ */
+public class TraceSessionEventListener implements SessionEventListener {
+
+    private long started;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        started = RequestTrace.start();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestTrace.end(RequestTrace.Phase.DB, started);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        started = RequestTrace.start();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestTrace.end(RequestTrace.Phase.DB, started);
+    }
+}
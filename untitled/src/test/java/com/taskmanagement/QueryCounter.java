@@ -0,0 +1,184 @@
+package com.taskmanagement;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.Filter;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts the SQL statements and entity loads of each MockMvc request, so tests can bound them:
+ * {@code .andExpect(maxStatements(2, 1))}. A request over its bound fails with the statements it
+ * ran and the entities it loaded.
+ * <p>
+ * Statements are counted at the JDBC level, so JPA and {@code JdbcTemplate} work both count.
+ * Only the request thread is counted: background work and scatter-gather over several shards
+ * is not. Import {@link Config} into the test context to enable counting.
+ */
+public final class QueryCounter {
+
+    private static final String ATTRIBUTE = QueryCounter.class.getName();
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static ResultMatcher maxStatements(int statements) {
+        return maxStatements(statements, Integer.MAX_VALUE);
+    }
+
+    public static ResultMatcher maxStatements(int statements, int entityLoads) {
+        return result -> {
+            MockHttpServletRequest request = result.getRequest();
+            Counts counts = (Counts) request.getAttribute(ATTRIBUTE);
+            if (counts == null) {
+                throw new AssertionError("No query counts for " + request.getRequestURI()
+                        + "; import QueryCounter.Config into the test context");
+            }
+            if (counts.statements.size() > statements || counts.entityLoads() > entityLoads) {
+                throw new AssertionError(counts.report(request.getMethod() + " " + request.getRequestURI(),
+                        statements, entityLoads));
+            }
+        };
+    }
+
+    private static final class Counts {
+        private final List<String> statements = new ArrayList<>();
+        private final Map<String, Integer> loadsByEntity = new TreeMap<>();
+
+        private int entityLoads() {
+            return loadsByEntity.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        private String report(String request, int maxStatements, int maxEntityLoads) {
+            StringBuilder report = new StringBuilder(request)
+                    .append(" ran ").append(statements.size()).append(" SQL statements (at most ").append(maxStatements)
+                    .append(") and loaded ").append(entityLoads()).append(" entities");
+            if (maxEntityLoads != Integer.MAX_VALUE) {
+                report.append(" (at most ").append(maxEntityLoads).append(')');
+            }
+            for (int i = 0; i < statements.size(); i++) {
+                report.append("\n  ").append(i + 1).append(". ").append(statements.get(i));
+            }
+            loadsByEntity.forEach((entity, loads) -> report.append("\n  loaded ").append(entity).append(" x").append(loads));
+            return report.toString();
+        }
+    }
+
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        public static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    // The primary data source, which JPA and JdbcTemplate both go through
+                    return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                            ? proxy(DataSource.class, dataSource, null)
+                            : bean;
+                }
+            };
+        }
+
+        @Bean
+        public FilterRegistrationBean<Filter> queryCountingFilter() {
+            FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>((request, response, chain) -> {
+                Counts counts = new Counts();
+                CURRENT.set(counts);
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    CURRENT.remove();
+                    request.setAttribute(ATTRIBUTE, counts);
+                }
+            });
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return registration;
+        }
+
+        @Bean
+        public SmartInitializingSingleton entityLoadCounting(EntityManagerFactory entityManagerFactory) {
+            return () -> entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getServiceRegistry()
+                    .getService(EventListenerRegistry.class)
+                    .appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> {
+                        Counts counts = CURRENT.get();
+                        if (counts != null) {
+                            counts.loadsByEntity.merge(event.getEntity().getClass().getSimpleName(), 1, Integer::sum);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Proxies a JDBC object: connections and statements it returns are proxied in turn, and
+     * executions on a statement are recorded with {@code sql}, the SQL it was prepared with.
+     */
+    private static <T> T proxy(Class<T> type, T target, String sql) {
+        return type.cast(Proxy.newProxyInstance(QueryCounter.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    if (Statement.class.isAssignableFrom(type) && method.getName().startsWith("execute")) {
+                        record(sql != null ? sql : args != null && args.length > 0 ? String.valueOf(args[0]) : "batch");
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    return wrap(method, args, result);
+                }));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object wrap(Method method, Object[] args, Object result) {
+        Class<?> returnType = method.getReturnType();
+        if (result == null || !returnType.isInterface()) {
+            return result;
+        }
+        if (returnType == Connection.class) {
+            return proxy(Connection.class, (Connection) result, null);
+        }
+        if (Statement.class.isAssignableFrom(returnType)) {
+            String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+            return proxy((Class<Object>) returnType, result, sql);
+        }
+        return result;
+    }
+
+    private static void record(String sql) {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.statements.add(sql);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.taskmanagement;
+
+import com.taskmanagement.datasource.ShardRebalancer;
+import com.taskmanagement.datasource.ShardTemplate;
+import com.taskmanagement.dto.CreateTaskRequest;
+import com.taskmanagement.dto.CreateUserRequest;
+import com.taskmanagement.dto.TaskDTO;
+import com.taskmanagement.repository.UserRepository;
+import com.taskmanagement.service.TaskService;
+import com.taskmanagement.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard0",
+        "app.datasource.replicaUrls=",
+        "app.sharding.shardUrls=jdbc:h2:mem:shard1,jdbc:h2:mem:shard2"
+})
+public class ShardingIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        // Deleting through the service also clears tasks living on shards other than 0
+        userRepository.findAll().forEach(user -> userService.deleteUser(user.getId()));
+
+        for (int i = 0; i < 12; i++) {
+            Long userId = userService.createUser(CreateUserRequest.builder()
+                    .firstName("User" + i)
+                    .lastName("Sharded")
+                    .email("user" + i + "@example.com")
+                    .password("password123")
+                    .dateOfBirth(LocalDate.of(1990, 1, 1))
+                    .build()).getId();
+            userIds.add(userId);
+            for (int t = 0; t < 3; t++) {
+                taskService.createTask(userId, CreateTaskRequest.builder()
+                        .title("Task " + t + " of user " + i)
+                        .dueDate(LocalDate.of(2024, 2, 1))
+                        .build());
+            }
+        }
+    }
+
+    @Test
+    public void testTasksSpreadAcrossShardsWithUniqueIds() {
+        Set<Integer> shards = new HashSet<>();
+        userIds.forEach(userId -> shards.add(shardTemplate.shardFor(userId)));
+        assertTrue(shards.size() > 1, "12 users should not all hash to one shard");
+
+        List<TaskDTO> all = taskService.getAllTasks();
+        assertEquals(36, all.size());
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < all.size(); i++) {
+            assertTrue(ids.add(all.get(i).getId()), "duplicate task id " + all.get(i).getId());
+            if (i > 0) {
+                assertTrue(all.get(i - 1).getId() < all.get(i).getId(), "merged list must be ordered by id");
+            }
+        }
+    }
+
+    @Test
+    public void testKeysetPagesCoverAllShards() {
+        List<TaskDTO> collected = new ArrayList<>();
+        Long afterId = null;
+        List<TaskDTO> page;
+        do {
+            page = taskService.getTasksPage(afterId, 5);
+            collected.addAll(page);
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == 5);
+
+        assertEquals(taskService.getAllTasks(), collected);
+    }
+
+    @Test
+    public void testRebalanceMovesUserTasks() {
+        Long userId = userIds.get(0);
+        int source = shardTemplate.shardFor(userId);
+        int target = (source + 1) % shardTemplate.getShardCount();
+
+        assertEquals(3, shardRebalancer.moveUser(userId, target));
+        assertEquals(target, shardTemplate.shardFor(userId));
+        assertEquals(3, taskService.getUserTasks(userId).size());
+        assertEquals(36, taskService.getAllTasks().size());
+    }
+}
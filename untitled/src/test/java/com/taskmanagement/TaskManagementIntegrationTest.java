@@ -2,25 +2,44 @@ package com.taskmanagement;
 
 import com.taskmanagement.dto.CreateUserRequest;
 import com.taskmanagement.dto.AuthRequest;
+import com.taskmanagement.entity.OutboxEvent;
 import com.taskmanagement.entity.User;
+import com.taskmanagement.outbox.InMemoryOutboxPublisher;
 import com.taskmanagement.repository.UserRepository;
+import com.taskmanagement.scheduling.OverdueScheduler;
+import com.taskmanagement.scheduling.TaskArchiver;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import static com.taskmanagement.QueryCounter.maxStatements;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+@SpringBootTest(properties = {"app.taskStream.chunkSize=2",
+        "app.tracing.sampleRate=1", "app.tracing.slowMs=0", "app.rateLimit.search.refillPerSecond=1",
+        "app.import.maxBytes=4096", "app.taskStream.maxConcurrent=1", "app.taskStream.maxQueued=2"})
 @AutoConfigureMockMvc
+@AutoConfigureObservability
+@Import(QueryCounter.Config.class)
 public class TaskManagementIntegrationTest {
 
     @Autowired
@@ -32,6 +51,21 @@ public class TaskManagementIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private InMemoryOutboxPublisher outboxPublisher;
+
+    @Autowired
+    private TaskArchiver taskArchiver;
+
+    @Autowired
+    private OverdueScheduler overdueScheduler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private String jwtToken;
     private Long userId;
 
@@ -52,6 +86,7 @@ public class TaskManagementIntegrationTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(createUserRequest)))
                 .andExpect(status().isCreated())
+                .andExpect(maxStatements(3, 0))
                 .andReturn();
 
         String registerResponse = registerResult.getResponse().getContentAsString();
@@ -64,6 +99,7 @@ public class TaskManagementIntegrationTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(authRequest)))
                 .andExpect(status().isOk())
+                .andExpect(maxStatements(2, 1))
                 .andReturn();
 
         String loginResponse = loginResult.getResponse().getContentAsString();
@@ -84,32 +120,167 @@ public class TaskManagementIntegrationTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
+                .andExpect(maxStatements(3, 0))
                 .andExpect(jsonPath("$.firstName").value("Jane"))
                 .andExpect(jsonPath("$.lastName").value("Doe"))
                 .andExpect(jsonPath("$.email").value("jane@example.com"));
     }
 
+    @Test
+    public void testRetriedRegistrationIsReplayedFromIdempotencyKey() throws Exception {
+        CreateUserRequest request = CreateUserRequest.builder()
+                .firstName("Jane")
+                .lastName("Doe")
+                .email("jane@example.com")
+                .password("password456")
+                .dateOfBirth(LocalDate.of(1992, 5, 20))
+                .build();
+        String body = objectMapper.writeValueAsString(request);
+
+        MvcResult first = mockMvc.perform(post("/api/users/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotency-Key", "register-jane")
+                .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andExpect(maxStatements(5, 0))
+                .andReturn();
+
+        // Answered from memory: no second insert, no BCrypt, no query at all
+        mockMvc.perform(post("/api/users/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotency-Key", "register-jane")
+                .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(maxStatements(0))
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(content().json(first.getResponse().getContentAsString()));
+        assertEquals(1, userRepository.findAll().stream()
+                .filter(user -> user.getEmail().equals("jane@example.com")).count());
+
+        request.setEmail("other@example.com");
+        mockMvc.perform(post("/api/users/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotency-Key", "register-jane")
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(maxStatements(0, 0));
+
+        // Anonymous keys are scoped by client, so another client's key of the same name is its own
+        mockMvc.perform(post("/api/users/register")
+                .with(other -> {
+                    other.setRemoteAddr("10.0.0.2");
+                    return other;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotency-Key", "register-jane")
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andExpect(maxStatements(5, 0));
+    }
+
     @Test
     public void testGetAllUsers() throws Exception {
         mockMvc.perform(get("/api/users"))
                 .andExpect(status().isOk())
+                .andExpect(maxStatements(1))
                 .andExpect(jsonPath("$[0].firstName").exists());
     }
 
+    @Test
+    public void testGetAllUsersSnapshotIsInvalidatedByWrites() throws Exception {
+        mockMvc.perform(get("/api/users").header("Origin", "https://example.com"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Access-Control-Allow-Origin", "*"))
+                .andExpect(maxStatements(1, 1));
+        // The miss scheduled a background rebuild; wait until requests are served from it
+        double hits = snapshotHits();
+        for (int attempt = 0; attempt < 100 && snapshotHits() == hits; attempt++) {
+            Thread.sleep(20);
+            mockMvc.perform(get("/api/users")).andExpect(status().isOk()).andExpect(maxStatements(1, 1));
+        }
+        mockMvc.perform(get("/api/users").header("Origin", "https://example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.email == 'john@example.com')]").exists())
+                .andExpect(header().string("Access-Control-Allow-Origin", "*"))
+                .andExpect(maxStatements(0, 0));
+
+        CreateUserRequest request = CreateUserRequest.builder()
+                .firstName("Jane")
+                .lastName("Doe")
+                .email("jane@example.com")
+                .password("password456")
+                .dateOfBirth(LocalDate.of(1992, 5, 20))
+                .build();
+        mockMvc.perform(post("/api/users/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(maxStatements(3, 0));
+
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.email == 'jane@example.com')]").exists())
+                .andExpect(maxStatements(1, 2));
+    }
+
     @Test
     public void testGetUserById() throws Exception {
-        mockMvc.perform(get("/api/users/" + userId))
+        mockMvc.perform(get("/api/users/" + userId)
+                .header("Authorization", "Bearer " + jwtToken))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.firstName").value("John"));
+                .andExpect(maxStatements(2, 2))
+                .andExpect(jsonPath("$.firstName").value("John"))
+                .andExpect(jsonPath("$.dateOfBirth").value("1990-01-15"))
+                .andExpect(jsonPath("$.password").doesNotExist());
+    }
+
+    @Test
+    public void testGetMissingUserReturnsErrorBody() throws Exception {
+        mockMvc.perform(get("/api/users/999999")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNotFound())
+                .andExpect(maxStatements(2, 1))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.error").value("Not Found"))
+                .andExpect(jsonPath("$.path").value("/api/users/999999"))
+                .andExpect(jsonPath("$.timestamp").exists());
+    }
+
+    @Test
+    public void testUnknownRouteIsNotFoundNotServerError() throws Exception {
+        mockMvc.perform(get("/api/no-such-endpoint")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNotFound())
+                .andExpect(maxStatements(1, 1))
+                .andExpect(jsonPath("$.path").value("/api/no-such-endpoint"));
     }
 
     @Test
     public void testSearchUsersByName() throws Exception {
         mockMvc.perform(get("/api/users/search/John"))
                 .andExpect(status().isOk())
+                .andExpect(maxStatements(1, 1))
                 .andExpect(jsonPath("$[0].firstName").value("John"));
     }
 
+    @Test
+    public void testSearchIsRateLimited() throws Exception {
+        MvcResult limited = null;
+        for (int i = 0; i < 100 && limited == null; i++) {
+            MvcResult result = mockMvc.perform(get("/api/users/search/John"))
+                    .andExpect(maxStatements(1, 1))
+                    .andReturn();
+            if (result.getResponse().getStatus() == 429) {
+                limited = result;
+            }
+        }
+
+        assertNotNull(limited, "search endpoint was never rate limited");
+        assertNotNull(limited.getResponse().getHeader("Retry-After"));
+    }
+
     @Test
     public void testCreateTask() throws Exception {
         String taskJson = """
@@ -126,14 +297,554 @@ public class TaskManagementIntegrationTest {
                 .content(taskJson)
                 .header("Authorization", "Bearer " + jwtToken))
                 .andExpect(status().isCreated())
+                .andExpect(maxStatements(4, 2))
                 .andExpect(jsonPath("$.title").value("Test Task"))
+                .andExpect(jsonPath("$.dueDate").value("2024-02-01"))
+                .andExpect(jsonPath("$.userId").value(userId))
                 .andExpect(jsonPath("$.status").value("TODO"));
     }
 
+    @Test
+    public void testGetUserTasksSeesOwnWrite() throws Exception {
+        String taskJson = """
+                {
+                    "title": "Fresh Task",
+                    "dueDate": "2024-02-01"
+                }
+                """;
+
+        mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(taskJson)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isCreated())
+                .andExpect(maxStatements(4, 2));
+
+        mockMvc.perform(get("/api/tasks/user/" + userId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(2, 2))
+                .andExpect(jsonPath("$[?(@.title == 'Fresh Task')]").exists());
+    }
+
+    @Test
+    public void testServerTimingBreaksDownRequestAndSlowTracesAreKept() throws Exception {
+        createTask("Timed Task", "Traced");
+
+        // Traced, but the timings are not shown to an ordinary caller
+        mockMvc.perform(get("/api/tasks/user/" + userId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Server-Timing"))
+                .andExpect(maxStatements(2, 2));
+
+        String adminToken = adminToken();
+        mockMvc.perform(get("/api/users/" + userId)
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", containsString("auth;dur=")))
+                .andExpect(header().string("Server-Timing", containsString("db;dur=")))
+                .andExpect(header().string("Server-Timing", containsString("map;dur=")))
+                .andExpect(header().string("Server-Timing", containsString("ser;dur=")))
+                .andExpect(header().string("Server-Timing", containsString("total;dur=")))
+                .andExpect(maxStatements(2, 2));
+
+        // Every request is slow at app.tracing.slowMs=0
+        mockMvc.perform(get("/api/admin/traces/slow")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isForbidden())
+                .andExpect(maxStatements(0, 0));
+        mockMvc.perform(get("/api/admin/traces/slow")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.path == '/api/tasks/user/" + userId + "')].phasesMs.db").exists())
+                .andExpect(maxStatements(0, 0));
+    }
+
+    @Test
+    public void testSparseFieldsetsSelectOnlyRequestedColumns() throws Exception {
+        createTask("Sparse Task", "A long description the client did not ask for");
+
+        // One statement for the owner check, one projection; no task entity is loaded
+        mockMvc.perform(get("/api/tasks/user/" + userId + "?fields=title,status")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(2, 1))
+                .andExpect(jsonPath("$[0].id").exists())
+                .andExpect(jsonPath("$[0].title").value("Sparse Task"))
+                .andExpect(jsonPath("$[0].status").value("TODO"))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].userId").doesNotExist());
+
+        // The principal is cached by now, so the projection is the only statement
+        mockMvc.perform(get("/api/users/" + userId + "?fields=email")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(1, 0))
+                .andExpect(jsonPath("$.id").value(userId))
+                .andExpect(jsonPath("$.email").value("john@example.com"))
+                .andExpect(jsonPath("$.firstName").doesNotExist())
+                .andExpect(jsonPath("$.lastName").doesNotExist())
+                .andExpect(jsonPath("$.dateOfBirth").doesNotExist());
+
+        mockMvc.perform(get("/api/tasks?fields=title,secret")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(maxStatements(0, 0));
+    }
+
+    @Test
+    public void testMultiGetPreservesOrderAndReportsMissingIds() throws Exception {
+        long first = createTask("First", "One");
+        long second = createTask("Second", "Two");
+
+        mockMvc.perform(get("/api/tasks?ids=" + second + ",999999," + first + "," + second)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(1, 2))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(second))
+                .andExpect(jsonPath("$.items[1].id").value(first))
+                .andExpect(jsonPath("$.missingIds[0]").value(999999));
+
+        mockMvc.perform(get("/api/users?ids=424242," + userId))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(1, 1))
+                .andExpect(jsonPath("$.items[0].email").value("john@example.com"))
+                .andExpect(jsonPath("$.missingIds[0]").value(424242));
+
+        StringBuilder tooMany = new StringBuilder("1");
+        for (int id = 2; id <= 201; id++) {
+            tooMany.append(',').append(id);
+        }
+        mockMvc.perform(get("/api/users?ids=" + tooMany))
+                .andExpect(status().isBadRequest())
+                .andExpect(maxStatements(0, 0));
+        mockMvc.perform(get("/api/users?ids=1,abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(maxStatements(0, 0));
+    }
+
+    @Test
+    public void testStreamUserTasksAsNdjson() throws Exception {
+        long first = createTask("Streamed one", null);
+        createTask("Streamed two", "spans chunks");
+        long last = createTask("Streamed three", null);
+
+        MvcResult started = mockMvc.perform(get("/api/tasks/user/" + userId + "/stream")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(request().asyncStarted())
+                .andExpect(maxStatements(0, 0))
+                .andReturn();
+        // The rows are read on the task stream executor, which is not counted; the request thread runs none
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(maxStatements(0, 0))
+                .andReturn().getResponse().getContentAsString();
+
+        // Three tasks over chunks of two, in id order
+        String[] lines = body.trim().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals(first, objectMapper.readTree(lines[0]).get("id").asLong());
+        assertEquals(last, objectMapper.readTree(lines[2]).get("id").asLong());
+
+        mockMvc.perform(get("/api/tasks/user/" + (userId + 1) + "/stream")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isForbidden())
+                .andExpect(maxStatements(0, 0));
+
+        // Finished streams give their slot back: more in a row than the 3 the executor admits at once
+        for (int i = 0; i < 5; i++) {
+            MvcResult again = mockMvc.perform(get("/api/tasks/user/" + userId + "/stream")
+                    .header("Authorization", "Bearer " + jwtToken))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(again))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    public void testSearchTasksRanksAndFollowsWrites() throws Exception {
+        long titleHit = createTask("Renew passport", "Book an appointment");
+        long descriptionHit = createTask("Travel prep", "Check the passport expiry date before booking flights");
+        createTask("Groceries", "Milk and bread");
+
+        mockMvc.perform(get("/api/tasks/search").param("q", "Passport")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(1, 2))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(titleHit))
+                .andExpect(jsonPath("$[1].id").value(descriptionHit));
+
+        mockMvc.perform(get("/api/tasks/search").param("q", "passport").param("limit", "1")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(maxStatements(1, 1));
+
+        mockMvc.perform(delete("/api/tasks/" + titleHit)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNoContent())
+                .andExpect(maxStatements(3, 1));
+
+        mockMvc.perform(get("/api/tasks/search").param("q", "passport")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(descriptionHit))
+                .andExpect(maxStatements(1, 1));
+    }
+
+    @Test
+    public void testSearchTasksIsScopedToCaller() throws Exception {
+        createTask("Secret project", "Only John should find this");
+
+        String otherUser = """
+                {
+                    "firstName": "Eve",
+                    "lastName": "Other",
+                    "email": "eve@example.com",
+                    "password": "password123",
+                    "dateOfBirth": "1990-01-01"
+                }
+                """;
+        mockMvc.perform(post("/api/users/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(otherUser))
+                .andExpect(status().isCreated())
+                .andExpect(maxStatements(3, 0));
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AuthRequest("eve@example.com", "password123"))))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(2, 1))
+                .andReturn();
+        String otherToken = objectMapper.readTree(login.getResponse().getContentAsString()).get("token").asText();
+
+        mockMvc.perform(get("/api/tasks/search").param("q", "secret")
+                .header("Authorization", "Bearer " + otherToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0))
+                .andExpect(maxStatements(1, 1));
+    }
+
+    @Test
+    public void testOverdueTasksAreFlaggedByScheduler() throws Exception {
+        long pastDue = createTask("Past due", null, "2024-02-01", "TODO");
+        createTask("Finished", null, "2024-02-01", "DONE");
+        long future = createTask("Future", null, LocalDate.now().plusDays(30).toString(), "TODO");
+
+        // A past due date is flagged on the scheduler's next tick
+        String overdue = "[]";
+        for (int attempt = 0; attempt < 50 && !overdue.contains("\"id\":" + pastDue); attempt++) {
+            Thread.sleep(100);
+            overdue = mockMvc.perform(get("/api/tasks/user/" + userId + "/overdue")
+                    .header("Authorization", "Bearer " + jwtToken))
+                    .andExpect(status().isOk())
+                    .andExpect(maxStatements(2, 2))
+                    .andReturn().getResponse().getContentAsString();
+        }
+
+        mockMvc.perform(get("/api/tasks/user/" + userId + "/overdue")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(maxStatements(2, 2))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(pastDue))
+                .andExpect(jsonPath("$[0].overdue").value(true));
+
+        mockMvc.perform(get("/api/tasks/user/" + userId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$[?(@.id == " + future + ")].overdue").value(false))
+                .andExpect(maxStatements(2, 4));
+
+        // Finishing the task clears the flag straight away
+        mockMvc.perform(put("/api/tasks/" + pastDue)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Past due\",\"dueDate\":\"2024-02-01\",\"status\":\"DONE\"}")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(3, 1));
+
+        mockMvc.perform(get("/api/tasks/user/" + userId + "/overdue")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$.length()").value(0))
+                .andExpect(maxStatements(1, 1));
+    }
+
+    @Test
+    public void testPastDueTasksLoadedAtStartupAreFlaggedWithoutWaitingForATick() {
+        // As if written before this instance started, so only the startup load sees it
+        jdbcTemplate.update("INSERT INTO tasks (title, due_date, status, user_id, created_at, updated_at) "
+                + "VALUES ('Overdue before restart', DATE '2024-02-01', 'TODO', ?, CURRENT_DATE, CURRENT_DATE)", userId);
+        long taskId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tasks WHERE user_id = ?", Long.class, userId);
+
+        overdueScheduler.run(null);
+
+        // Flagged by the load itself, not by a timer, so no notification is sent again
+        assertEquals(List.of(taskId), overdueScheduler.overdueTaskIds(userId));
+    }
+
+    @Test
+    public void testDoneTasksAreArchivedOutOfDefaultReads() throws Exception {
+        long done = createTask("Finished long ago", "archive me", "2024-02-01", "DONE");
+        long open = createTask("Still open", null, "2024-02-01", "TODO");
+
+        assertEquals(1, taskArchiver.archiveDoneBefore(LocalDate.now().plusDays(1)));
+
+        mockMvc.perform(get("/api/tasks/user/" + userId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(open))
+                .andExpect(maxStatements(2, 2));
+        mockMvc.perform(get("/api/tasks/user/" + userId).param("includeArchived", "true")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[?(@.id == " + done + ")].archived").value(true))
+                .andExpect(maxStatements(3, 3));
+        mockMvc.perform(get("/api/tasks/" + done)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNotFound())
+                .andExpect(maxStatements(1, 0));
+        mockMvc.perform(get("/api/tasks/" + done).param("includeArchived", "true")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("DONE"))
+                .andExpect(maxStatements(2, 1));
+        mockMvc.perform(get("/api/tasks").param("limit", "10").param("includeArchived", "true")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$[?(@.id == " + done + ")]").exists())
+                .andExpect(maxStatements(2, 2));
+
+        // Archived tasks no longer match searches
+        mockMvc.perform(get("/api/tasks/search").param("q", "archive")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$.length()").value(0))
+                .andExpect(maxStatements(0, 0));
+
+        // Reopening an archived task moves it back under its own id; deleting one removes it for good
+        mockMvc.perform(put("/api/tasks/" + done)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Finished long ago\",\"description\":\"reopened\",\"dueDate\":\"2024-02-01\",\"status\":\"TODO\"}")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(done))
+                .andExpect(jsonPath("$.archived").value(false))
+                .andExpect(maxStatements(6, 1));
+        mockMvc.perform(get("/api/tasks/" + done)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("reopened"));
+
+        long gone = createTask("Finished and forgotten", null, "2024-02-01", "DONE");
+        assertEquals(1, taskArchiver.archiveDoneBefore(LocalDate.now().plusDays(1)));
+        mockMvc.perform(delete("/api/tasks/" + gone)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNoContent())
+                .andExpect(maxStatements(3, 0));
+        mockMvc.perform(get("/api/tasks/" + gone).param("includeArchived", "true")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/tasks/" + gone)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testTaskChangesArePublishedInOrderThroughOutbox() throws Exception {
+        long taskId = createTask("Outbox task", "first version");
+
+        mockMvc.perform(put("/api/tasks/" + taskId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Outbox task\",\"description\":\"second version\",\"dueDate\":\"2024-02-01\",\"status\":\"IN_PROGRESS\"}")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(3, 1));
+        mockMvc.perform(delete("/api/tasks/" + taskId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNoContent())
+                .andExpect(maxStatements(3, 1));
+
+        List<OutboxEvent> taskEvents = List.of();
+        for (int attempt = 0; attempt < 50 && taskEvents.size() < 3; attempt++) {
+            Thread.sleep(100);
+            taskEvents = outboxPublisher.getPublished().stream()
+                    .filter(event -> event.getAggregateType() == OutboxEvent.AggregateType.TASK)
+                    .filter(event -> event.getAggregateId() == taskId)
+                    .toList();
+        }
+
+        assertEquals(List.of(OutboxEvent.EventType.CREATED, OutboxEvent.EventType.UPDATED, OutboxEvent.EventType.DELETED),
+                taskEvents.stream().map(OutboxEvent::getEventType).toList());
+        assertTrue(taskEvents.get(1).getPayload().contains("second version"));
+        assertTrue(outboxPublisher.getPublished().stream()
+                .anyMatch(event -> event.getAggregateType() == OutboxEvent.AggregateType.USER
+                        && event.getAggregateId().equals(userId)
+                        && event.getEventType() == OutboxEvent.EventType.CREATED));
+    }
+
+    @Test
+    public void testBulkImportCsvReportsProgressAndRejectedRows() throws Exception {
+        String csv = """
+                title,description,dueDate,status
+                Imported one,"first, with comma",2024-03-01,TODO
+                ,missing title,2024-03-02,
+                Imported two,,2024-03-03,IN_PROGRESS
+                """;
+
+        MvcResult started = mockMvc.perform(post("/api/tasks/import")
+                .contentType("text/csv")
+                .content(csv)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isAccepted())
+                .andExpect(maxStatements(2, 2))
+                .andExpect(jsonPath("$.id").exists())
+                .andReturn();
+        String jobId = objectMapper.readTree(started.getResponse().getContentAsString()).get("id").asText();
+
+        String job = "";
+        for (int attempt = 0; attempt < 50 && !job.contains("\"COMPLETED\""); attempt++) {
+            job = mockMvc.perform(get("/api/tasks/import/" + jobId)
+                    .header("Authorization", "Bearer " + jwtToken))
+                    .andExpect(status().isOk())
+                    .andExpect(maxStatements(0, 0))
+                    .andReturn().getResponse().getContentAsString();
+            Thread.sleep(100);
+        }
+
+        mockMvc.perform(get("/api/tasks/import/" + jobId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(maxStatements(0, 0))
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.rowsRead").value(3))
+                .andExpect(jsonPath("$.rowsImported").value(2))
+                .andExpect(jsonPath("$.rowsRejected").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value("Title is required"));
+
+        mockMvc.perform(get("/api/tasks/user/" + userId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$[?(@.title == 'Imported one')].description").value("first, with comma"))
+                .andExpect(jsonPath("$[?(@.title == 'Imported two')].status").value("IN_PROGRESS"))
+                .andExpect(maxStatements(2, 3));
+    }
+
+    @Test
+    public void testBulkImportRejectsOversizedUpload() throws Exception {
+        String csv = "title,description,dueDate,status\n" + "Too big,,2024-03-01,TODO\n".repeat(200);
+
+        mockMvc.perform(post("/api/tasks/import")
+                .contentType("text/csv")
+                .content(csv)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(maxStatements(2, 2))
+                .andExpect(jsonPath("$.message").value("Imports are limited to 4096 bytes"));
+    }
+
+    @Test
+    public void testBulkImportRejectsUnsupportedContentType() throws Exception {
+        mockMvc.perform(post("/api/tasks/import")
+                .contentType(MediaType.APPLICATION_XML)
+                .content("<tasks/>")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(maxStatements(1, 1));
+    }
+
     @Test
     public void testGetAllTasks() throws Exception {
-        mockMvc.perform(get("/api/tasks"))
-                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(2, 1));
+    }
+
+    @Test
+    public void testGetTaskByIdLooksUpOneRow() throws Exception {
+        long taskId = createTask("Looked up", "by id");
+
+        mockMvc.perform(get("/api/tasks/" + taskId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(1, 1))
+                .andExpect(jsonPath("$.title").value("Looked up"));
+        mockMvc.perform(get("/api/tasks/999999")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNotFound())
+                .andExpect(maxStatements(1, 0));
+    }
+
+    @Test
+    public void testGetAllTasksAsCborIsSmallerThanJson() throws Exception {
+        String taskJson = """
+                {
+                    "title": "Binary Task",
+                    "description": "Negotiated through the Accept header",
+                    "dueDate": "2024-02-01",
+                    "status": "TODO"
+                }
+                """;
+
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/api/tasks")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(taskJson)
+                    .header("Authorization", "Bearer " + jwtToken))
+                    .andExpect(status().isCreated())
+                    .andExpect(maxStatements(4, 2));
+        }
+
+        byte[] json = mockMvc.perform(get("/api/tasks")
+                .accept(MediaType.APPLICATION_JSON)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(1, 5))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        byte[] cbor = mockMvc.perform(get("/api/tasks")
+                .accept(MediaType.APPLICATION_CBOR)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(maxStatements(1, 5))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        byte[] smile = mockMvc.perform(get("/api/tasks")
+                .accept("application/x-jackson-smile")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(1, 5))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertTrue(cbor.length < json.length, "CBOR " + cbor.length + " bytes vs JSON " + json.length);
+        assertTrue(smile.length < json.length, "Smile " + smile.length + " bytes vs JSON " + json.length);
+    }
+
+    @Test
+    public void testGetAllTasksKeysetPagination() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/tasks")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\": \"Paged " + i + "\", \"dueDate\": \"2024-02-01\"}")
+                    .header("Authorization", "Bearer " + jwtToken))
+                    .andExpect(status().isCreated())
+                    .andExpect(maxStatements(4, 2));
+        }
+
+        MvcResult firstPage = mockMvc.perform(get("/api/tasks?limit=2")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(1, 2))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andReturn();
+        long lastId = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get(1).get("id").asLong();
+
+        mockMvc.perform(get("/api/tasks?limit=2&afterId=" + lastId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(greaterThan((int) lastId)))
+                .andExpect(maxStatements(1, 1));
     }
 
     @Test
@@ -150,7 +861,8 @@ public class TaskManagementIntegrationTest {
         mockMvc.perform(post("/api/tasks")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(taskJson))
-                .andExpect(status().isUnauthorized());
+                .andExpect(status().isUnauthorized())
+                .andExpect(maxStatements(0, 0));
     }
 
     @Test
@@ -161,10 +873,155 @@ public class TaskManagementIntegrationTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(authRequest)))
                 .andExpect(status().isOk())
+                .andExpect(maxStatements(2, 1))
                 .andExpect(jsonPath("$.token").exists())
                 .andExpect(jsonPath("$.type").value("Bearer"));
     }
 
+    @Test
+    public void testConnectionIsNotHeldThroughBcrypt() throws Exception {
+        AuthRequest authRequest = new AuthRequest("john@example.com", "password123");
+        int logins = 5;
+
+        double[] before = connectionUsage();
+        long start = System.nanoTime();
+        for (int i = 0; i < logins; i++) {
+            mockMvc.perform(post("/api/auth/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(authRequest)))
+                    .andExpect(status().isOk())
+                    .andExpect(maxStatements(2, 1));
+        }
+        double requestMillis = (System.nanoTime() - start) / 1_000_000.0 / logins;
+        double[] after = connectionUsage();
+
+        double checkouts = after[0] - before[0];
+        double holdMillisPerRequest = (after[1] - before[1]) / logins;
+        assertTrue(checkouts > 0, "login should have used the pool");
+        assertTrue(holdMillisPerRequest < requestMillis / 2,
+                "connections held " + holdMillisPerRequest + " ms per login of " + requestMillis + " ms");
+    }
+
+    // {checkouts, total hold time in ms} summed over every pool
+    private double[] connectionUsage() {
+        double count = 0;
+        double totalMillis = 0;
+        for (Timer timer : meterRegistry.find("hikaricp.connections.usage").timers()) {
+            count += timer.count();
+            totalMillis += timer.totalTime(TimeUnit.MILLISECONDS);
+        }
+        return new double[] {count, totalMillis};
+    }
+
+    @Test
+    public void testRequestQueuedTooLongIsShed() throws Exception {
+        long queuedSinceMicros = (System.currentTimeMillis() - 10_000) * 1000;
+
+        mockMvc.perform(get("/api/users/" + userId)
+                .header("X-Request-Start", "t=" + queuedSinceMicros)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(maxStatements(0, 0))
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    public void testRefreshRotatesTokensAndDetectsReuse() throws Exception {
+        String firstRefreshToken = objectMapper.readTree(mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequest("john@example.com", "password123"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.expiresIn").value(900))
+                .andExpect(maxStatements(2, 1))
+                .andReturn().getResponse().getContentAsString()).get("refreshToken").asText();
+
+        String refreshResponse = mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.createObjectNode().put("refreshToken", firstRefreshToken).toString()))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(4, 2))
+                .andReturn().getResponse().getContentAsString();
+        String accessToken = objectMapper.readTree(refreshResponse).get("token").asText();
+        String secondRefreshToken = objectMapper.readTree(refreshResponse).get("refreshToken").asText();
+        assertNotEquals(firstRefreshToken, secondRefreshToken);
+
+        mockMvc.perform(get("/api/tasks/user/" + userId)
+                .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(3, 2));
+
+        // Replaying the used token revokes its whole family, including the token that replaced it
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.createObjectNode().put("refreshToken", firstRefreshToken).toString()))
+                .andExpect(status().isUnauthorized())
+                .andExpect(maxStatements(2, 1));
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.createObjectNode().put("refreshToken", secondRefreshToken).toString()))
+                .andExpect(status().isUnauthorized())
+                .andExpect(maxStatements(1, 1));
+    }
+
+    @Test
+    public void testLogoutRevokesToken() throws Exception {
+        mockMvc.perform(post("/api/auth/logout")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNoContent())
+                .andExpect(maxStatements(3, 1));
+
+        mockMvc.perform(get("/api/tasks/user/" + userId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isUnauthorized())
+                .andExpect(maxStatements(1, 0));
+        mockMvc.perform(post("/api/auth/logout")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isUnauthorized())
+                .andExpect(maxStatements(1, 0));
+    }
+
+    @Test
+    public void testAdminRevokesAllTokensOfUser() throws Exception {
+        mockMvc.perform(post("/api/admin/users/" + userId + "/tokens/revoke")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isForbidden())
+                .andExpect(maxStatements(1, 1));
+
+        long adminId = objectMapper.readTree(mockMvc.perform(post("/api/users/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(CreateUserRequest.builder()
+                                .firstName("Ada")
+                                .lastName("Admin")
+                                .email("admin@example.com")
+                                .password("password123")
+                                .dateOfBirth(LocalDate.of(1985, 3, 1))
+                                .build())))
+                .andExpect(status().isCreated())
+                .andExpect(maxStatements(3, 0))
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+        grantAdmin("admin@example.com");
+        String adminToken = objectMapper.readTree(mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequest("admin@example.com", "password123"))))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(2, 1))
+                .andReturn().getResponse().getContentAsString()).get("token").asText();
+
+        mockMvc.perform(post("/api/admin/users/" + userId + "/tokens/revoke")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isNoContent())
+                .andExpect(maxStatements(4, 1));
+
+        mockMvc.perform(get("/api/tasks/user/" + userId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isUnauthorized())
+                .andExpect(maxStatements(1, 0));
+        mockMvc.perform(get("/api/tasks/user/" + adminId)
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(2, 1));
+    }
+
     @Test
     public void testLoginFailure() throws Exception {
         AuthRequest authRequest = new AuthRequest("john@example.com", "wrongpassword");
@@ -172,7 +1029,8 @@ public class TaskManagementIntegrationTest {
         mockMvc.perform(post("/api/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(authRequest)))
-                .andExpect(status().isUnauthorized());
+                .andExpect(status().isUnauthorized())
+                .andExpect(maxStatements(1, 1));
     }
 
     @Test
@@ -191,14 +1049,108 @@ public class TaskManagementIntegrationTest {
                 .content(updateJson)
                 .header("Authorization", "Bearer " + jwtToken))
                 .andExpect(status().isOk())
+                .andExpect(maxStatements(5, 2))
                 .andExpect(jsonPath("$.firstName").value("UpdatedJohn"));
     }
 
+    @Test
+    public void testEmailChangeEvictsCachedPrincipal() throws Exception {
+        // Warm the principal cache for the token's email
+        mockMvc.perform(get("/api/tasks/user/" + userId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(3, 2));
+
+        mockMvc.perform(put("/api/users/" + userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.createObjectNode()
+                        .put("firstName", "John")
+                        .put("lastName", "Doe")
+                        .put("email", "renamed@example.com")
+                        .put("dateOfBirth", "1990-01-15")
+                        .toString())
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(4, 1));
+
+        // The token names the old email, which no longer belongs to anyone; a cached principal
+        // that survived the update would still let it through
+        mockMvc.perform(get("/api/tasks/user/" + userId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isUnauthorized())
+                .andExpect(maxStatements(1, 0));
+        assertTrue(meterRegistry.get("user.cache.requests").tag("outcome", "hit").counter().count() > 0);
+
+        String renamedToken = objectMapper.readTree(mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequest("renamed@example.com", "password123"))))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(2, 1))
+                .andReturn().getResponse().getContentAsString()).get("token").asText();
+        mockMvc.perform(get("/api/tasks/user/" + userId)
+                .header("Authorization", "Bearer " + renamedToken))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(3, 2));
+    }
+
     @Test
     public void testDeleteUserWithAuth() throws Exception {
         mockMvc.perform(delete("/api/users/" + userId)
                 .header("Authorization", "Bearer " + jwtToken))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isNoContent())
+                .andExpect(maxStatements(9, 2));
     }
-}
 
+    private String adminToken() throws Exception {
+        mockMvc.perform(post("/api/users/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(CreateUserRequest.builder()
+                        .firstName("Ada")
+                        .lastName("Admin")
+                        .email("admin@example.com")
+                        .password("password123")
+                        .dateOfBirth(LocalDate.of(1985, 3, 1))
+                        .build())))
+                .andExpect(status().isCreated())
+                .andExpect(maxStatements(3, 0));
+        grantAdmin("admin@example.com");
+        return objectMapper.readTree(mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequest("admin@example.com", "password123"))))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(2, 1))
+                .andReturn().getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private double snapshotHits() {
+        return meterRegistry.counter("snapshot.cache.requests", "outcome", "hit").count();
+    }
+
+    // Admin is only granted in the database, as an operator would
+    private void grantAdmin(String email) {
+        User user = userRepository.findByEmail(email).orElseThrow();
+        user.setAdmin(true);
+        userRepository.save(user);
+    }
+
+    private long createTask(String title, String description) throws Exception {
+        return createTask(title, description, "2024-02-01", "TODO");
+    }
+
+    private long createTask(String title, String description, String dueDate, String status) throws Exception {
+        String taskJson = objectMapper.createObjectNode()
+                .put("title", title)
+                .put("description", description)
+                .put("dueDate", dueDate)
+                .put("status", status)
+                .toString();
+        MvcResult result = mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(taskJson)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isCreated())
+                .andExpect(maxStatements(4, 2))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+}
@@ -0,0 +1,74 @@
+package com.taskmanagement.datagen;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SyntheticDatasetTest {
+
+    private static final LocalDate ANCHOR = LocalDate.of(2024, 6, 1);
+
+    @Test
+    public void testSameSeedGeneratesIdenticalUsersAndTasks() {
+        SyntheticDataset first = new SyntheticDataset(42, 200, 5_000, 0.8, ANCHOR);
+        SyntheticDataset second = new SyntheticDataset(42, 200, 5_000, 0.8, ANCHOR);
+
+        long total = 0;
+        for (int user = 0; user < first.getUserCount(); user++) {
+            assertEquals(first.user(user), second.user(user));
+            assertEquals(first.taskCount(user), second.taskCount(user));
+            assertEquals(tasks(first, user), tasks(second, user));
+            total += first.taskCount(user);
+        }
+        assertEquals(5_000, total);
+
+        // Reading users out of order, or again, does not change them
+        assertEquals(tasks(first, 7), tasks(first, 7));
+        assertEquals(first.user(150), new SyntheticDataset(42, 200, 5_000, 0.8, ANCHOR).user(150));
+    }
+
+    @Test
+    public void testDifferentSeedGeneratesDifferentData() {
+        SyntheticDataset first = new SyntheticDataset(42, 200, 5_000, 0.8, ANCHOR);
+        SyntheticDataset other = new SyntheticDataset(43, 200, 5_000, 0.8, ANCHOR);
+
+        List<List<String>> firstTasks = new ArrayList<>();
+        List<List<String>> otherTasks = new ArrayList<>();
+        for (int user = 0; user < first.getUserCount(); user++) {
+            firstTasks.addAll(tasks(first, user));
+            otherTasks.addAll(tasks(other, user));
+        }
+        assertNotEquals(firstTasks, otherTasks);
+    }
+
+    @Test
+    public void testDescriptionsFitTheColumn() {
+        SyntheticDataset dataset = new SyntheticDataset(7, 50, 100_000, 0.8, ANCHOR);
+        int[] longest = {0};
+        int[] described = {0};
+        for (int user = 0; user < dataset.getUserCount(); user++) {
+            dataset.tasks(user, (title, description, dueDate, status, createdAt, updatedAt) -> {
+                if (description != null) {
+                    described[0]++;
+                    longest[0] = Math.max(longest[0], description.length());
+                }
+                assertFalse(title.isBlank());
+            });
+        }
+        assertTrue(described[0] > 0);
+        assertTrue(longest[0] <= SyntheticDataset.MAX_DESCRIPTION_LENGTH,
+                "longest description was " + longest[0] + " characters");
+    }
+
+    private static List<List<String>> tasks(SyntheticDataset dataset, int user) {
+        List<List<String>> tasks = new ArrayList<>();
+        dataset.tasks(user, (title, description, dueDate, status, createdAt, updatedAt) -> tasks.add(List.of(
+                title, String.valueOf(description), dueDate.toString(), status.name(),
+                createdAt.toString(), updatedAt.toString())));
+        return tasks;
+    }
+}